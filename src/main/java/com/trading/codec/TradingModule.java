@@ -0,0 +1,140 @@
+package com.trading.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.trading.model.MarketData;
+import com.trading.model.Stock;
+import com.trading.model.Trade;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Hand-written serializers for the entities returned in bulk. They write the
+ * same fields in the same order as the reflective bean serializer, with
+ * timestamps as ISO-8601 strings, but skip property introspection and
+ * per-property serializer lookups.
+ */
+public class TradingModule extends SimpleModule {
+
+    // Pre-encoded names; the generators copy their cached bytes instead of encoding each time
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString BUY_ORDER_ID = new SerializedString("buyOrderId");
+    private static final SerializedString SELL_ORDER_ID = new SerializedString("sellOrderId");
+    private static final SerializedString STOCK_ID = new SerializedString("stockId");
+    private static final SerializedString QUANTITY = new SerializedString("quantity");
+    private static final SerializedString PRICE = new SerializedString("price");
+    private static final SerializedString EXECUTED_AT = new SerializedString("executedAt");
+    private static final SerializedString VOLUME = new SerializedString("volume");
+    private static final SerializedString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializedString CURRENT_PRICE = new SerializedString("currentPrice");
+    private static final SerializedString LAST_UPDATED = new SerializedString("lastUpdated");
+    private static final SerializedString SYMBOL = new SerializedString("symbol");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString SECTOR = new SerializedString("sector");
+
+    public TradingModule() {
+        super("TradingModule");
+        addSerializer(Trade.class, new TradeSerializer());
+        addSerializer(MarketData.class, new MarketDataSerializer());
+        addSerializer(Stock.class, new StockSerializer());
+    }
+
+    static class TradeSerializer extends StdSerializer<Trade> {
+
+        TradeSerializer() {
+            super(Trade.class);
+        }
+
+        @Override
+        public void serialize(Trade trade, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(trade, 7);
+            writeLong(gen, ID, trade.getId());
+            writeLong(gen, BUY_ORDER_ID, trade.getBuyOrderId());
+            writeLong(gen, SELL_ORDER_ID, trade.getSellOrderId());
+            writeLong(gen, STOCK_ID, trade.getStockId());
+            writeInteger(gen, QUANTITY, trade.getQuantity());
+            writeDecimal(gen, PRICE, trade.getPrice());
+            writeDateTime(gen, EXECUTED_AT, trade.getExecutedAt());
+            gen.writeEndObject();
+        }
+    }
+
+    static class MarketDataSerializer extends StdSerializer<MarketData> {
+
+        MarketDataSerializer() {
+            super(MarketData.class);
+        }
+
+        @Override
+        public void serialize(MarketData data, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(data, 5);
+            writeLong(gen, ID, data.getId());
+            writeLong(gen, STOCK_ID, data.getStockId());
+            writeDecimal(gen, PRICE, data.getPrice());
+            writeLong(gen, VOLUME, data.getVolume());
+            writeDateTime(gen, TIMESTAMP, data.getTimestamp());
+            gen.writeEndObject();
+        }
+    }
+
+    static class StockSerializer extends StdSerializer<Stock> {
+
+        StockSerializer() {
+            super(Stock.class);
+        }
+
+        @Override
+        public void serialize(Stock stock, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(stock, 6);
+            writeLong(gen, ID, stock.getId());
+            gen.writeFieldName(SYMBOL);
+            gen.writeString(stock.getSymbol());
+            gen.writeFieldName(NAME);
+            gen.writeString(stock.getName());
+            gen.writeFieldName(SECTOR);
+            gen.writeString(stock.getSector());
+            writeDecimal(gen, CURRENT_PRICE, stock.getCurrentPrice());
+            writeDateTime(gen, LAST_UPDATED, stock.getLastUpdated());
+            gen.writeEndObject();
+        }
+    }
+
+    private static void writeLong(JsonGenerator gen, SerializableString name, Long value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    private static void writeInteger(JsonGenerator gen, SerializableString name, Integer value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    private static void writeDecimal(JsonGenerator gen, SerializableString name, BigDecimal value) throws IOException {
+        gen.writeFieldName(name);
+        gen.writeNumber(value);
+    }
+
+    private static void writeDateTime(JsonGenerator gen, SerializableString name, LocalDateTime value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.trading.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.trading.codec.TradingModule;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.util.MimeType;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Adds Smile, Jackson's binary JSON, next to the JSON codecs. Clients that
+ * send {@code Accept: application/x-jackson-smile} get the same documents in
+ * binary form, about half the size of the JSON text; everyone else keeps
+ * getting JSON. {@code application/stream+x-jackson-smile} streams one value
+ * per element.
+ */
+@Configuration
+public class CodecConfig implements WebFluxConfigurer {
+
+    public static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+    public static final MediaType SMILE_STREAM = new MediaType("application", "stream+x-jackson-smile");
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    public CodecConfig(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    /**
+     * Picked up by Boot's ObjectMapper and, through the same builder, by the
+     * Smile mapper below
+     */
+    @Bean
+    public Module tradingModule() {
+        return new TradingModule();
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        ObjectMapper smileMapper = objectMapperBuilder.getObject()
+                .factory(new SmileFactory())
+                .build();
+        // Without explicit types the codecs would claim the JSON media types
+        configurer.defaultCodecs().jackson2SmileEncoder(new SmileArrayEncoder(smileMapper));
+        configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper, SMILE, SMILE_STREAM));
+    }
+
+    /**
+     * Spring joins the elements of a non-streaming Flux with JSON text
+     * brackets and commas, which corrupts a binary document; write them into
+     * one Smile array instead, element by element through a single generator
+     * so shared names keep referring back across elements
+     */
+    static class SmileArrayEncoder extends Jackson2SmileEncoder {
+
+        SmileArrayEncoder(ObjectMapper mapper) {
+            super(mapper, SMILE, SMILE_STREAM);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            if (inputStream instanceof Mono || (mimeType != null && SMILE_STREAM.isCompatibleWith(mimeType))) {
+                return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+            }
+            return Flux.defer(() -> {
+                ObjectMapper mapper = getObjectMapper();
+                ObjectWriter writer = mapper.writerFor(mapper.constructType(elementType.getType()));
+                ByteArrayBuilder output = new ByteArrayBuilder();
+                try {
+                    JsonGenerator generator = mapper.getFactory().createGenerator(output);
+                    generator.writeStartArray();
+                    return Flux.from(inputStream)
+                            .map(value -> write(generator, output, bufferFactory, () -> writer.writeValue(generator, value)))
+                            .concatWith(Mono.fromCallable(() -> write(generator, output, bufferFactory, () -> {
+                                generator.writeEndArray();
+                                generator.close();
+                            })));
+                } catch (IOException ex) {
+                    return Flux.error(new EncodingException("Could not start Smile array", ex));
+                }
+            });
+        }
+
+        /**
+         * Run the write and hand over what it produced, including the
+         * header and array start written before the first element
+         */
+        private static DataBuffer write(JsonGenerator generator, ByteArrayBuilder output,
+                DataBufferFactory bufferFactory, SmileWrite write) {
+            try {
+                write.run();
+                generator.flush();
+            } catch (IOException ex) {
+                throw new EncodingException("Could not write Smile array element", ex);
+            }
+            byte[] bytes = output.toByteArray();
+            output.reset();
+            return bufferFactory.wrap(bytes);
+        }
+
+        @FunctionalInterface
+        private interface SmileWrite {
+            void run() throws IOException;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.trading.config;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Selects the connection pool a reactive pipeline runs against. Pipelines
+ * use the write pool unless wrapped with {@link #readOnly}, which routes their
+ * queries to the read pool so read bursts cannot take connections that order
+ * placement and settlement need. {@link #primary} pins a pipeline to the
+ * write pool even inside a read-only one, for reads that must see a write
+ * just made, which a lagging read replica may not have yet.
+ */
+public final class DataSourceRouting {
+
+    public static final String KEY = DataSourceRouting.class.getName();
+    public static final String WRITE = "write";
+    public static final String READ = "read";
+
+    private DataSourceRouting() {
+    }
+
+    public static <T> Flux<T> readOnly(Flux<T> flux) {
+        return flux.contextWrite(context -> context.put(KEY, READ));
+    }
+
+    public static <T> Mono<T> readOnly(Mono<T> mono) {
+        return mono.contextWrite(context -> context.put(KEY, READ));
+    }
+
+    public static <T> Flux<T> primary(Flux<T> flux) {
+        return flux.contextWrite(context -> context.put(KEY, WRITE));
+    }
+
+    public static <T> Mono<T> primary(Mono<T> mono) {
+        return mono.contextWrite(context -> context.put(KEY, WRITE));
+    }
+}
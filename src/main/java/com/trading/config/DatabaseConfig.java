@@ -1,29 +1,107 @@
 package com.trading.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
 import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.Resource;
 import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.connection.lookup.AbstractRoutingConnectionFactory;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Separate write and read connection pools behind a routing connection
+ * factory. The write pool takes its settings from {@code spring.r2dbc}; the
+ * read pool connects to {@code trading.datasource.read.url} when set (for a
+ * read replica) and to the primary database otherwise. Spring's SQL init only
+ * runs against the primary; a replica gets schema and data by replication,
+ * or, for a local stand-in, from {@code trading.datasource.read.init-scripts}
+ * run when the read pool starts. Pool gauges, including
+ * pending acquires, are published as {@code r2dbc.pool.*} tagged by bean
+ * name; acquire latency as {@code trading.r2dbc.acquire} tagged by pool.
+ */
 @Configuration
 public class DatabaseConfig {
 
-    // Disabled custom initializer since Spring Boot's built-in R2DBC initializer
-    // handles schema.sql and data.sql automatically when spring.sql.init.mode=always
-    
-    // @Bean
-    // public ConnectionFactoryInitializer initializer(ConnectionFactory connectionFactory) {
-    //     ConnectionFactoryInitializer initializer = new ConnectionFactoryInitializer();
-    //     initializer.setConnectionFactory(connectionFactory);
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool writeConnectionPool(R2dbcProperties properties) {
+        R2dbcProperties.Pool pool = properties.getPool();
+        return createPool(DataSourceRouting.WRITE, properties.getUrl(), properties,
+                pool.getInitialSize(), pool.getMaxSize(), pool.getMaxIdleTime());
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool readConnectionPool(R2dbcProperties properties,
+            @Value("${trading.datasource.read.url:}") String url,
+            @Value("${trading.datasource.read.initial-size:5}") int initialSize,
+            @Value("${trading.datasource.read.max-size:10}") int maxSize,
+            @Value("${trading.datasource.read.init-scripts:}") List<Resource> initScripts) {
+        ConnectionPool pool = createPool(DataSourceRouting.READ, url.isBlank() ? properties.getUrl() : url,
+                properties, initialSize, maxSize, properties.getPool().getMaxIdleTime());
+        if (!url.isBlank() && !initScripts.isEmpty()) {
+            new ResourceDatabasePopulator(initScripts.toArray(Resource[]::new)).populate(pool).block();
+        }
+        return pool;
+    }
+
+    @Bean
+    @Primary
+    public ConnectionFactory connectionFactory(
+            @Qualifier("writeConnectionPool") ConnectionPool writePool,
+            @Qualifier("readConnectionPool") ConnectionPool readPool,
+            MeterRegistry meterRegistry) {
+        AbstractRoutingConnectionFactory routing = new AbstractRoutingConnectionFactory() {
+            @Override
+            protected Mono<Object> determineCurrentLookupKey() {
+                return Mono.deferContextual(context -> Mono.justOrEmpty(
+                        context.getOrEmpty(DataSourceRouting.KEY)));
+            }
+        };
+        routing.setTargetConnectionFactories(Map.of(
+                DataSourceRouting.WRITE, timed(writePool, DataSourceRouting.WRITE, meterRegistry),
+                DataSourceRouting.READ, timed(readPool, DataSourceRouting.READ, meterRegistry)));
+        routing.setDefaultTargetConnectionFactory(timed(writePool, DataSourceRouting.WRITE, meterRegistry));
+        routing.setLenientFallback(false);
+        routing.afterPropertiesSet();
+        return routing;
+    }
 
-    //     ResourceDatabasePopulator populator = new ResourceDatabasePopulator();
-    //     populator.addScript(new ClassPathResource("schema.sql"));
-    //     populator.addScript(new ClassPathResource("data.sql"));
+    private static ConnectionPool createPool(String name, String url, R2dbcProperties properties,
+            int initialSize, int maxSize, Duration maxIdleTime) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (properties.getUsername() != null) {
+            options.option(ConnectionFactoryOptions.USER, properties.getUsername());
+        }
+        if (properties.getPassword() != null) {
+            options.option(ConnectionFactoryOptions.PASSWORD, properties.getPassword());
+        }
 
-    //     initializer.setDatabasePopulator(populator);
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .name(name)
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxIdleTime(maxIdleTime)
+                .build());
+    }
 
-    //     return initializer;
-    // }
+    private static ConnectionFactory timed(ConnectionPool pool, String name, MeterRegistry meterRegistry) {
+        Timer acquireTimer = Timer.builder("trading.r2dbc.acquire")
+                .description("Time waiting to acquire a pooled connection")
+                .tag("pool", name)
+                .register(meterRegistry);
+        return new TimedConnectionFactory(pool, acquireTimer);
+    }
 }
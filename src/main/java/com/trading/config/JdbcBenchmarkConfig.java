@@ -0,0 +1,65 @@
+package com.trading.config;
+
+import com.trading.repository.jdbc.JdbcTradingStore;
+import lombok.extern.slf4j.Slf4j;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * JDBC store for the persistence benchmark, enabled with
+ * {@code trading.persistence.jdbc-benchmark.enabled}. The services keep using
+ * R2DBC; only the benchmark runner calls the store. Uses H2's embedded JDBC
+ * driver and connection pool against the same database as R2DBC. Blocking
+ * calls run on virtual threads when the JVM running the application is Java
+ * 21 or newer; the build targets Java 17, where they run on a fixed pool
+ * sized to the connection pool instead.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "trading.persistence.jdbc-benchmark.enabled", havingValue = "true")
+public class JdbcBenchmarkConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public JdbcConnectionPool jdbcConnectionPool(
+            @Value("${trading.persistence.jdbc-benchmark.url}") String url,
+            @Value("${spring.r2dbc.username:sa}") String username,
+            @Value("${spring.r2dbc.password:}") String password,
+            @Value("${trading.persistence.jdbc-benchmark.max-connections:20}") int maxConnections) {
+        JdbcConnectionPool pool = JdbcConnectionPool.create(url, username, password);
+        pool.setMaxConnections(maxConnections);
+        return pool;
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jdbcScheduler(@Value("${trading.persistence.jdbc-benchmark.max-connections:20}") int maxConnections) {
+        return Schedulers.fromExecutorService(newExecutor(maxConnections), "jdbc");
+    }
+
+    @Bean
+    public JdbcTradingStore jdbcTradingStore(JdbcConnectionPool jdbcConnectionPool, Scheduler jdbcScheduler) {
+        return new JdbcTradingStore(jdbcConnectionPool, jdbcScheduler);
+    }
+
+    private static ExecutorService newExecutor(int platformThreads) {
+        try {
+            // Looked up reflectively so the build still targets Java 17
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            log.info("JDBC calls run on virtual threads");
+            return executor;
+        } catch (ReflectiveOperationException ex) {
+            log.info("Virtual threads need Java 21+ (running {}); JDBC calls run on {} platform threads",
+                    Runtime.version().feature(), platformThreads);
+            return Executors.newFixedThreadPool(platformThreads);
+        }
+    }
+}
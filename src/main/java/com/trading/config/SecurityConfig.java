@@ -19,6 +19,8 @@ public class SecurityConfig {
                 .authorizeExchange(exchanges -> exchanges
                         .pathMatchers("/h2-console/**").permitAll()
                         .pathMatchers("/api/**").permitAll()
+                        .pathMatchers("/ws/**").permitAll()
+                        .pathMatchers("/actuator/health").permitAll()
                         .anyExchange().authenticated())
                 .headers(headers -> headers
                         .frameOptions(ServerHttpSecurity.HeaderSpec.FrameOptionsSpec::disable))
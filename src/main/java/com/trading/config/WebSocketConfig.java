@@ -0,0 +1,20 @@
+package com.trading.config;
+
+import com.trading.controller.MarketFeedWebSocketHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+
+import java.util.Map;
+
+@Configuration
+public class WebSocketConfig {
+
+    @Bean
+    public HandlerMapping webSocketHandlerMapping(MarketFeedWebSocketHandler marketFeedWebSocketHandler) {
+        return new SimpleUrlHandlerMapping(Map.of("/ws/market", marketFeedWebSocketHandler),
+                Ordered.HIGHEST_PRECEDENCE);
+    }
+}
@@ -1,11 +1,15 @@
 package com.trading.controller;
 
+import com.trading.dto.AccountEvent;
 import com.trading.dto.DepositWithdrawRequest;
 import com.trading.model.Account;
+import com.trading.service.AccountEventBus;
 import com.trading.service.AccountService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -19,6 +23,7 @@ import java.util.Map;
 public class AccountController {
 
     private final AccountService accountService;
+    private final AccountEventBus accountEventBus;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -54,4 +59,22 @@ public class AccountController {
     public Mono<Account> withdraw(@PathVariable Long id, @Valid @RequestBody DepositWithdrawRequest request) {
         return accountService.withdraw(id, request.getAmount());
     }
+
+    /**
+     * Server-Sent Events stream of order, balance and holding changes. Resume
+     * with {@code after} or the standard Last-Event-ID header.
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<AccountEvent>> streamEvents(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long after,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return accountService.findById(id)
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("Account not found")))
+                .thenMany(accountEventBus.subscribe(id, after != null ? after : lastEventId))
+                .map(event -> ServerSentEvent.builder(event)
+                        .id(Long.toString(event.getSequence()))
+                        .event(event.getType())
+                        .build());
+    }
 }
@@ -0,0 +1,54 @@
+package com.trading.controller;
+
+import com.trading.service.ExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * Back-office exports. Responses are streamed row by row as CSV or NDJSON
+ * rather than serialized as one JSON array.
+ */
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private final ExportService exportService;
+
+    @GetMapping("/trades")
+    public ResponseEntity<Flux<String>> exportTrades(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "csv") String format) {
+        return streamed("trades", format, exportService.exportTrades(from, to, format));
+    }
+
+    @GetMapping("/orders")
+    public ResponseEntity<Flux<String>> exportOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "csv") String format) {
+        return streamed("orders", format, exportService.exportOrders(from, to, format));
+    }
+
+    private ResponseEntity<Flux<String>> streamed(String name, String format, Flux<String> body) {
+        MediaType contentType = "ndjson".equals(format) ? MediaType.APPLICATION_NDJSON : TEXT_CSV;
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(name + "." + format)
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
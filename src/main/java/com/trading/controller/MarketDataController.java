@@ -1,24 +1,59 @@
 package com.trading.controller;
 
+import com.trading.config.CodecConfig;
+import com.trading.dto.ChartPoint;
+import com.trading.dto.DepthSnapshot;
+import com.trading.dto.IndicatorSnapshot;
+import com.trading.dto.IngestReport;
+import com.trading.dto.SymbolStatistics;
 import com.trading.model.MarketData;
+import com.trading.model.PriceBar;
 import com.trading.model.Stock;
+import com.trading.service.ChartDownsampling;
+import com.trading.service.IndicatorService;
+import com.trading.service.MarketDataIngestService;
 import com.trading.service.MarketDataService;
+import com.trading.service.MarketDepthService;
+import com.trading.service.MarketStatisticsService;
+import com.trading.service.StockCatalogCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/market")
 @RequiredArgsConstructor
 public class MarketDataController {
 
     private final MarketDataService marketDataService;
+    private final MarketStatisticsService marketStatisticsService;
+    private final MarketDepthService marketDepthService;
+    private final StockCatalogCache stockCatalogCache;
+    private final MarketDataIngestService marketDataIngestService;
+    private final IndicatorService indicatorService;
 
+    /**
+     * Listings are served from pre-serialized JSON or Smile bodies with an
+     * ETag; a request with a matching If-None-Match gets an empty 304 until a
+     * price changes
+     */
     @GetMapping("/stocks")
-    public Flux<Stock> getAllStocks() {
-        return marketDataService.getAllStocks();
+    public Mono<ResponseEntity<byte[]>> getAllStocks(ServerHttpRequest request) {
+        return stockCatalogCache.getAllStocks().map(body -> cachedResponse(body, request));
     }
 
     @GetMapping("/stocks/{id}")
@@ -27,18 +62,61 @@ public class MarketDataController {
     }
 
     @GetMapping("/stocks/symbol/{symbol}")
-    public Mono<Stock> getStockBySymbol(@PathVariable String symbol) {
-        return marketDataService.getStockBySymbol(symbol);
+    public Mono<ResponseEntity<byte[]>> getStockBySymbol(@PathVariable String symbol, ServerHttpRequest request) {
+        return stockCatalogCache.getStockBySymbol(symbol).map(body -> cachedResponse(body, request));
     }
 
     @GetMapping("/stocks/sector/{sector}")
-    public Flux<Stock> getStocksBySector(@PathVariable String sector) {
-        return marketDataService.getStocksBySector(sector);
+    public Mono<ResponseEntity<byte[]>> getStocksBySector(@PathVariable String sector, ServerHttpRequest request) {
+        return stockCatalogCache.getStocksBySector(sector).map(body -> cachedResponse(body, request));
     }
 
+    /**
+     * Newest first; pass the id of the last tick received as {@code before}
+     * to fetch the next page
+     */
     @GetMapping("/data/{stockId}")
-    public Flux<MarketData> getMarketData(@PathVariable Long stockId) {
-        return marketDataService.getMarketDataForStock(stockId);
+    public Flux<MarketData> getMarketData(
+            @PathVariable Long stockId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "100") int limit) {
+        return marketDataService.getMarketDataForStock(stockId, before, limit);
+    }
+
+    /**
+     * Bulk load price history from CSV lines of
+     * {@code symbol,timestamp,price,volume}, optionally rolling them up into
+     * OHLCV bars of {@code rollupSeconds}
+     */
+    @PostMapping(value = "/data/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE,
+            MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public Mono<IngestReport> importMarketData(
+            @RequestBody Flux<DataBuffer> csv,
+            @RequestParam(required = false) Integer rollupSeconds) {
+        return marketDataIngestService.ingest(csv, rollupSeconds);
+    }
+
+    /**
+     * Price history between {@code from} and {@code to} downsampled to about
+     * {@code points} points, by LTTB or by keeping each bucket's min and max
+     */
+    @GetMapping("/data/{stockId}/chart")
+    public Flux<ChartPoint> getChart(
+            @PathVariable Long stockId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "1000") int points,
+            @RequestParam(defaultValue = "lttb") String mode) {
+        return marketDataService.getChart(stockId, from, to, points, ChartDownsampling.Mode.parse(mode));
+    }
+
+    @GetMapping("/data/{stockId}/bars")
+    public Flux<PriceBar> getPriceBars(
+            @PathVariable Long stockId,
+            @RequestParam int intervalSeconds,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return marketDataService.getPriceBars(stockId, intervalSeconds, from, to);
     }
 
     @GetMapping("/data/{stockId}/latest")
@@ -61,4 +139,88 @@ public class MarketDataController {
     public Flux<Stock> streamAllPrices() {
         return marketDataService.streamAllPrices();
     }
+
+    @GetMapping("/stats")
+    public Flux<SymbolStatistics> getAllStatistics() {
+        return marketStatisticsService.getAllStatistics();
+    }
+
+    /**
+     * Rolling 24 hour statistics, maintained in memory as trades settle and prices tick
+     */
+    @GetMapping("/stocks/{stockId}/stats")
+    public Mono<SymbolStatistics> getStatistics(@PathVariable Long stockId) {
+        return marketStatisticsService.getStatistics(stockId);
+    }
+
+    @GetMapping(value = "/stocks/{stockId}/stats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<SymbolStatistics> streamStatistics(@PathVariable Long stockId) {
+        return marketStatisticsService.streamStatistics(stockId);
+    }
+
+    @GetMapping("/indicators")
+    public Flux<IndicatorSnapshot> getAllIndicators() {
+        return indicatorService.getAllIndicators();
+    }
+
+    /**
+     * SMA, EMA, RSI and Bollinger bands maintained incrementally from price ticks
+     */
+    @GetMapping("/stocks/{stockId}/indicators")
+    public Mono<IndicatorSnapshot> getIndicators(@PathVariable Long stockId) {
+        return indicatorService.getIndicators(stockId);
+    }
+
+    @GetMapping(value = "/stocks/{stockId}/indicators/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<IndicatorSnapshot> streamIndicators(@PathVariable Long stockId) {
+        return indicatorService.streamIndicators(stockId);
+    }
+
+    /**
+     * Top bid and ask price levels aggregated from resting LIMIT orders
+     */
+    @GetMapping("/stocks/{stockId}/depth")
+    public Mono<DepthSnapshot> getDepth(
+            @PathVariable Long stockId,
+            @RequestParam(defaultValue = "10") int levels) {
+        return marketDepthService.getDepth(stockId, levels);
+    }
+
+    /**
+     * A depth snapshot followed by sequenced price level deltas
+     */
+    @GetMapping(value = "/stocks/{stockId}/depth/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamDepth(
+            @PathVariable Long stockId,
+            @RequestParam(defaultValue = "10") int levels) {
+        return marketDepthService.streamDepth(stockId, levels);
+    }
+
+    private static ResponseEntity<byte[]> cachedResponse(StockCatalogCache.CachedBody body, ServerHttpRequest request) {
+        boolean smile = acceptsSmile(request);
+        // Conditional requests are answered with 304 by the ResponseEntity handler
+        return ResponseEntity.ok()
+                .eTag(smile ? body.etag().replaceFirst("\"$", "-smile\"") : body.etag())
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(smile ? CodecConfig.SMILE : MediaType.APPLICATION_JSON)
+                .body(smile ? body.smile() : body.json());
+    }
+
+    /**
+     * True when Smile is asked for by name and preferred over JSON
+     */
+    private static boolean acceptsSmile(ServerHttpRequest request) {
+        List<MediaType> accepted = new ArrayList<>(request.getHeaders().getAccept());
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType mediaType : accepted) {
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+            if (!mediaType.isWildcardSubtype() && mediaType.isCompatibleWith(CodecConfig.SMILE)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
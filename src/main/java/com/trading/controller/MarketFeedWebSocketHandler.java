@@ -0,0 +1,101 @@
+package com.trading.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.dto.MarketFeedMessage;
+import com.trading.model.Stock;
+import com.trading.service.MarketDataService;
+import com.trading.service.MarketFeedService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * WebSocket market data feed at {@code /ws/market}. Ticks for subscribed
+ * stocks are sent as binary frames (see {@link MarketFeedService}); control
+ * messages are JSON text.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MarketFeedWebSocketHandler implements WebSocketHandler {
+
+    private final MarketFeedService marketFeedService;
+    private final MarketDataService marketDataService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        Set<Long> subscribed = ConcurrentHashMap.newKeySet();
+        Sinks.Many<String> replies = Sinks.many().unicast().onBackpressureBuffer();
+
+        Mono<Void> input = session.receive()
+                .filter(message -> message.getType() == WebSocketMessage.Type.TEXT)
+                .map(WebSocketMessage::getPayloadAsText)
+                .concatMap(text -> handleControl(text, subscribed))
+                .doOnNext(replies::tryEmitNext)
+                .doFinally(signal -> replies.tryEmitComplete())
+                .then();
+
+        // Drop ticks for a slow client rather than hold back the shared feed
+        Flux<WebSocketMessage> ticks = marketFeedService.frames()
+                .onBackpressureDrop()
+                .filter(frame -> subscribed.contains(frame.getStockId()))
+                .map(frame -> session.binaryMessage(factory -> factory.wrap(frame.getPayload())));
+        Flux<WebSocketMessage> control = replies.asFlux()
+                .map(session::textMessage);
+
+        return Mono.zip(input, session.send(Flux.merge(ticks, control))).then();
+    }
+
+    private Mono<String> handleControl(String text, Set<Long> subscribed) {
+        MarketFeedMessage request;
+        try {
+            request = objectMapper.readValue(text, MarketFeedMessage.class);
+        } catch (JsonProcessingException ex) {
+            return Mono.just(error("Invalid message"));
+        }
+
+        boolean subscribe = "subscribe".equals(request.getAction());
+        if (!subscribe && !"unsubscribe".equals(request.getAction())) {
+            return Mono.just(error("Unknown action: " + request.getAction()));
+        }
+
+        Flux<Long> bySymbol = Flux.fromIterable(request.getSymbols() != null ? request.getSymbols() : Set.of())
+                .flatMap(marketDataService::getStockBySymbol)
+                .map(Stock::getId);
+        return Flux.fromIterable(request.getStockIds() != null ? request.getStockIds() : Set.of())
+                .concatWith(bySymbol)
+                .collectList()
+                .map(stockIds -> {
+                    if (subscribe) {
+                        subscribed.addAll(stockIds);
+                    } else {
+                        subscribed.removeAll(stockIds);
+                    }
+                    return write(new MarketFeedMessage("subscribed", new TreeSet<>(subscribed), null, null));
+                });
+    }
+
+    private String error(String message) {
+        return write(new MarketFeedMessage("error", null, null, message));
+    }
+
+    private String write(MarketFeedMessage message) {
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
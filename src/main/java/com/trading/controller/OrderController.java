@@ -1,5 +1,6 @@
 package com.trading.controller;
 
+import com.trading.dto.AmendOrderRequest;
 import com.trading.dto.CreateOrderRequest;
 import com.trading.model.Order;
 import com.trading.service.OrderService;
@@ -28,18 +29,33 @@ public class OrderController {
         return orderService.findById(id);
     }
 
+    /**
+     * Newest first; pass the id of the last order received as {@code before}
+     * to fetch the next page
+     */
     @GetMapping("/account/{accountId}")
-    public Flux<Order> getOrdersByAccountId(@PathVariable Long accountId) {
-        return orderService.findByAccountId(accountId);
+    public Flux<Order> getOrdersByAccountId(
+            @PathVariable Long accountId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "100") int limit) {
+        return orderService.findByAccountId(accountId, before, limit);
     }
 
     @GetMapping("/status/{status}")
-    public Flux<Order> getOrdersByStatus(@PathVariable String status) {
-        return orderService.findByStatus(status);
+    public Flux<Order> getOrdersByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "100") int limit) {
+        return orderService.findByStatus(status, before, limit);
     }
 
     @PutMapping("/{id}/cancel")
     public Mono<Order> cancelOrder(@PathVariable Long id) {
         return orderService.cancelOrder(id);
     }
+
+    @PutMapping("/{id}/amend")
+    public Mono<Order> amendOrder(@PathVariable Long id, @Valid @RequestBody AmendOrderRequest request) {
+        return orderService.amendOrder(id, request);
+    }
 }
@@ -0,0 +1,45 @@
+package com.trading.controller;
+
+import com.trading.dto.CreatePriceAlertRequest;
+import com.trading.model.PriceAlert;
+import com.trading.service.PriceAlertService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/alerts")
+@RequiredArgsConstructor
+public class PriceAlertController {
+
+    private final PriceAlertService priceAlertService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<PriceAlert> createAlert(@Valid @RequestBody CreatePriceAlertRequest request) {
+        return priceAlertService.createAlert(request);
+    }
+
+    @GetMapping("/user/{userId}")
+    public Flux<PriceAlert> getUserAlerts(@PathVariable Long userId) {
+        return priceAlertService.getUserAlerts(userId);
+    }
+
+    /**
+     * Server-Sent Events stream of the user's alerts as they fire
+     */
+    @GetMapping(value = "/user/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<PriceAlert> streamUserAlerts(@PathVariable Long userId) {
+        return priceAlertService.streamUserAlerts(userId);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteAlert(@PathVariable Long id) {
+        return priceAlertService.deleteAlert(id);
+    }
+}
@@ -1,12 +1,15 @@
 package com.trading.controller;
 
+import com.trading.dto.Fill;
 import com.trading.model.Trade;
 import com.trading.service.TradeService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @RestController
@@ -21,9 +24,32 @@ public class TradeController {
         return tradeService.findById(id);
     }
 
+    /**
+     * Newest first; pass the id of the last trade received as {@code before}
+     * to fetch the next page
+     */
     @GetMapping("/stock/{stockId}")
-    public Flux<Trade> getTradesByStockId(@PathVariable Long stockId) {
-        return tradeService.findByStockId(stockId);
+    public Flux<Trade> getTradesByStockId(
+            @PathVariable Long stockId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "100") int limit) {
+        return tradeService.findByStockId(stockId, before, limit);
+    }
+
+    /**
+     * Fills for an account, newest first; pass the trade id and side of the
+     * last fill received as {@code before} and {@code beforeSide} to fetch
+     * the next page
+     */
+    @GetMapping("/account/{accountId}/fills")
+    public Flux<Fill> getFillsByAccountId(
+            @PathVariable Long accountId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) String beforeSide,
+            @RequestParam(defaultValue = "100") int limit) {
+        return tradeService.findFillsByAccount(accountId, from, to, before, beforeSide, limit);
     }
 
     @GetMapping("/recent")
@@ -31,6 +57,13 @@ public class TradeController {
         return tradeService.findRecentTrades(limit);
     }
 
+    @GetMapping("/stock/{stockId}/recent")
+    public Flux<Trade> getRecentTradesForStock(
+            @PathVariable Long stockId,
+            @RequestParam(defaultValue = "10") int limit) {
+        return tradeService.findRecentTradesForStock(stockId, limit);
+    }
+
     @PostMapping("/execute")
     public Mono<Trade> executeTrade(@RequestBody Map<String, Long> request) {
         return tradeService.executeTrade(
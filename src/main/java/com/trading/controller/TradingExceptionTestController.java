@@ -243,7 +243,7 @@ public class TradingExceptionTestController {
     public Mono<Map<String, String>> testSellInsufficientHoldings() {
         log.info("Testing sell with insufficient holdings");
         // Try to sell more shares than owned
-        return portfolioService.updateHoldingAfterSell(1L, 1L, 10000, new BigDecimal("100.00"))
+        return portfolioService.updateHoldingAfterSell(null, 1L, 1L, 10000, new BigDecimal("100.00"))
                 .map(holding -> {
                     Map<String, String> response = new HashMap<>();
                     response.put("status", "unexpected");
@@ -1,11 +1,15 @@
 package com.trading.controller;
 
+import com.trading.dto.WatchlistStocksRequest;
+import com.trading.model.MarketData;
 import com.trading.model.Stock;
 import com.trading.model.Watchlist;
 import com.trading.model.WatchlistItem;
 import com.trading.service.WatchlistService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -43,6 +47,14 @@ public class WatchlistController {
         return watchlistService.getWatchlistStocks(id);
     }
 
+    /**
+     * Server-Sent Events stream of price ticks for the stocks on the watchlist
+     */
+    @GetMapping(value = "/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<MarketData> streamWatchlist(@PathVariable Long id) {
+        return watchlistService.streamWatchlist(id);
+    }
+
     @PostMapping("/{id}/items")
     @ResponseStatus(HttpStatus.CREATED)
     public Mono<WatchlistItem> addStockToWatchlist(
@@ -51,6 +63,25 @@ public class WatchlistController {
         return watchlistService.addStockToWatchlist(id, request.get("stockId"));
     }
 
+    /**
+     * Add many stocks at once; stocks already on the watchlist are skipped.
+     * Returns the watchlist's stocks.
+     */
+    @PostMapping("/{id}/items/batch")
+    public Flux<Stock> addStocksToWatchlist(
+            @PathVariable Long id,
+            @Valid @RequestBody WatchlistStocksRequest request) {
+        return watchlistService.addStocksToWatchlist(id, request.getStockIds());
+    }
+
+    @PostMapping("/{id}/items/batch-remove")
+    public Mono<Map<String, Integer>> removeStocksFromWatchlist(
+            @PathVariable Long id,
+            @Valid @RequestBody WatchlistStocksRequest request) {
+        return watchlistService.removeStocksFromWatchlist(id, request.getStockIds())
+                .map(removed -> Map.of("removed", removed));
+    }
+
     @DeleteMapping("/{watchlistId}/stocks/{stockId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public Mono<Void> removeStockFromWatchlist(
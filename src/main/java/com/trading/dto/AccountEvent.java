@@ -0,0 +1,24 @@
+package com.trading.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Change to an account's orders, balance or holdings. Sequence numbers are
+ * consecutive per account; data is the order, account or holding as it
+ * stands after the change.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountEvent {
+
+    private Long accountId;
+    private Long sequence;
+    private String type;
+    private Object data;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,20 @@
+package com.trading.dto;
+
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AmendOrderRequest {
+
+    @Positive(message = "Quantity must be positive")
+    private Integer quantity; // Optional, keeps current quantity when absent
+
+    @Positive(message = "Price must be positive")
+    private BigDecimal price; // Optional, keeps current price when absent
+}
@@ -7,6 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
@@ -30,4 +31,8 @@ public class CreateOrderRequest {
     private Integer quantity;
 
     private BigDecimal price; // Required for LIMIT and STOP_LOSS orders
+
+    private String timeInForce; // GTC (default), IOC, FOK, DAY, GTD
+
+    private LocalDateTime expiresAt; // Required for GTD orders
 }
@@ -0,0 +1,28 @@
+package com.trading.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreatePriceAlertRequest {
+
+    @NotNull(message = "User ID is required")
+    private Long userId;
+
+    @NotNull(message = "Stock ID is required")
+    private Long stockId;
+
+    @NotNull(message = "Direction is required")
+    private String direction; // ABOVE, BELOW
+
+    @NotNull(message = "Threshold is required")
+    @Positive(message = "Threshold must be positive")
+    private BigDecimal threshold;
+}
@@ -0,0 +1,23 @@
+package com.trading.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * New state of one price level. A quantity of zero removes the level.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepthDelta {
+
+    private Long stockId;
+    private Long sequence;
+    private String side;
+    private BigDecimal price;
+    private Long quantity;
+    private Integer orderCount;
+}
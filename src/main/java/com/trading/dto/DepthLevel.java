@@ -0,0 +1,17 @@
+package com.trading.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepthLevel {
+
+    private BigDecimal price;
+    private Long quantity;
+    private Integer orderCount;
+}
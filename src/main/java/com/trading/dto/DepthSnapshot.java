@@ -0,0 +1,18 @@
+package com.trading.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepthSnapshot {
+
+    private Long stockId;
+    private Long sequence;
+    private List<DepthLevel> bids;
+    private List<DepthLevel> asks;
+}
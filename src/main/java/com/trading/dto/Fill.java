@@ -0,0 +1,22 @@
+package com.trading.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Fill {
+
+    private Long tradeId;
+    private Long orderId;
+    private Long stockId;
+    private String side; // BUY, SELL
+    private Integer quantity;
+    private BigDecimal price;
+    private LocalDateTime executedAt;
+}
@@ -0,0 +1,30 @@
+package com.trading.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Indicator values for one stock; a value is null until enough ticks have
+ * arrived to fill its period. Maps are keyed by period in ticks.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndicatorSnapshot {
+
+    private Long stockId;
+    private BigDecimal price;
+    private Map<Integer, BigDecimal> sma;
+    private Map<Integer, BigDecimal> ema;
+    private BigDecimal rsi;
+    private BigDecimal bollingerUpper;
+    private BigDecimal bollingerMiddle;
+    private BigDecimal bollingerLower;
+    private Long ticks;
+    private LocalDateTime asOf;
+}
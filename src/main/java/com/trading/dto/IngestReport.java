@@ -0,0 +1,18 @@
+package com.trading.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestReport {
+
+    private Long lines;
+    private Long inserted;
+    private Long rejected;
+    private Long bars;
+    private Long elapsedMillis;
+    private Long rowsPerSecond;
+}
@@ -0,0 +1,26 @@
+package com.trading.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * Text control message on the market feed WebSocket. Clients send
+ * {@code subscribe} or {@code unsubscribe} with stock ids and/or symbols;
+ * the server answers {@code subscribed} with the full set of stock ids, or
+ * {@code error}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MarketFeedMessage {
+
+    private String action;
+    private Set<Long> stockIds;
+    private Set<String> symbols;
+    private String message;
+}
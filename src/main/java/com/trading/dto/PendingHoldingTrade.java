@@ -0,0 +1,22 @@
+package com.trading.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingHoldingTrade {
+
+    private Long tradeId;
+    private Long stockId;
+    private Integer quantity;
+    private BigDecimal price;
+    private Long buyAccountId;
+    private Long sellAccountId;
+    private Boolean buyHoldingApplied;
+    private Boolean sellHoldingApplied;
+}
@@ -0,0 +1,27 @@
+package com.trading.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SymbolStatistics {
+
+    private Long stockId;
+    private BigDecimal lastPrice;
+    private BigDecimal openPrice;
+    private BigDecimal highPrice;
+    private BigDecimal lowPrice;
+    private BigDecimal priceChange;
+    private BigDecimal priceChangePercentage;
+    private BigDecimal vwap;
+    private Long volume;
+    private Long tradeCount;
+    private LocalDateTime windowStart;
+    private LocalDateTime asOf;
+}
@@ -0,0 +1,19 @@
+package com.trading.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WatchlistStocksRequest {
+
+    @NotEmpty(message = "Stock ids are required")
+    @Size(max = 1000, message = "At most 1000 stocks per request")
+    private Set<Long> stockIds;
+}
@@ -1,6 +1,7 @@
 package com.trading.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -10,6 +11,7 @@ import reactor.core.publisher.Mono;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @Slf4j
 @RestControllerAdvice
@@ -31,6 +33,15 @@ public class GlobalExceptionHandler {
                 .body(createErrorResponse(ex.getMessage(), HttpStatus.CONFLICT)));
     }
 
+    @ExceptionHandler(RejectedExecutionException.class)
+    public Mono<ResponseEntity<Map<String, Object>>> handleRejectedExecutionException(RejectedExecutionException ex) {
+        log.warn("Rejected: {}", ex.getMessage());
+        return Mono.just(ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(createErrorResponse("Server is busy, retry shortly", HttpStatus.SERVICE_UNAVAILABLE)));
+    }
+
     @ExceptionHandler(Exception.class)
     public Mono<ResponseEntity<Map<String, Object>>> handleGenericException(Exception ex) {
         log.error("Unexpected error: {}", ex.getMessage(), ex);
@@ -0,0 +1,273 @@
+package com.trading.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Admission control in front of every API and WebSocket request:
+ * <ol>
+ *   <li>token buckets per endpoint class: one per remote address, and one
+ *   per account within it, so one account cannot use up another's capacity
+ *   and changing the claimed account does not escape the address limit;</li>
+ *   <li>load shedding while the event loops lag or the write connection pool
+ *   has too many pending acquires (cancellations are still admitted);</li>
+ *   <li>a global limit on requests in flight; long-lived streams are limited
+ *   by their bucket only.</li>
+ * </ol>
+ * Rejected requests get 429 with Retry-After. Accounts are identified by the
+ * {@code X-Account-Id} header, an {@code accountId} query parameter or an
+ * account id in the path. The address limit is the account limit times
+ * {@code address-multiplier}, leaving room for several accounts behind one
+ * address. Once {@code max-buckets} buckets exist, requests from new
+ * addresses share one overflow bucket per endpoint class and new accounts get
+ * no bucket of their own until idle ones are evicted.
+ */
+@Slf4j
+@Component
+@Order(-200)
+public class AdmissionControlFilter implements WebFilter {
+
+    public static final String ACCOUNT_HEADER = "X-Account-Id";
+
+    private static final Pattern ACCOUNT_PATH = Pattern.compile("/api/(?:accounts|orders/account|portfolio/account)/(\\d+)");
+    private static final Pattern CANCEL_PATH = Pattern.compile("/api/orders/\\d+/cancel");
+
+    private final EventLoopLagMonitor eventLoopLagMonitor;
+    private final ConnectionPool writeConnectionPool;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int maxInFlight;
+    private final long lagThresholdNanos;
+    private final int pendingAcquireThreshold;
+    private final Map<EndpointClass, Limit> limits;
+    private final Map<EndpointClass, Limit> addressLimits;
+    private final Map<EndpointClass, TokenBucket> overflowBuckets = new EnumMap<>(EndpointClass.class);
+    private final int maxBuckets;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rateLimited;
+    private final Counter shed;
+    private final Disposable bucketEviction;
+
+    public AdmissionControlFilter(EventLoopLagMonitor eventLoopLagMonitor,
+            @Qualifier("writeConnectionPool") ConnectionPool writeConnectionPool,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${trading.admission.enabled:true}") boolean enabled,
+            @Value("${trading.admission.max-in-flight:512}") int maxInFlight,
+            @Value("${trading.admission.event-loop-lag-threshold:200ms}") Duration lagThreshold,
+            @Value("${trading.admission.pending-acquire-threshold:64}") int pendingAcquireThreshold,
+            @Value("${trading.admission.address-multiplier:4}") int addressMultiplier,
+            @Value("${trading.admission.max-buckets:100000}") int maxBuckets,
+            @Value("${trading.admission.orders.rate:20}") double ordersRate,
+            @Value("${trading.admission.orders.burst:40}") int ordersBurst,
+            @Value("${trading.admission.matching.rate:5}") double matchingRate,
+            @Value("${trading.admission.matching.burst:10}") int matchingBurst,
+            @Value("${trading.admission.streams.rate:1}") double streamsRate,
+            @Value("${trading.admission.streams.burst:10}") int streamsBurst,
+            @Value("${trading.admission.default.rate:100}") double defaultRate,
+            @Value("${trading.admission.default.burst:200}") int defaultBurst) {
+        this.eventLoopLagMonitor = eventLoopLagMonitor;
+        this.writeConnectionPool = writeConnectionPool;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxInFlight = maxInFlight;
+        this.lagThresholdNanos = lagThreshold.toNanos();
+        this.pendingAcquireThreshold = pendingAcquireThreshold;
+        this.limits = Map.of(
+                EndpointClass.ORDERS, new Limit(ordersRate, ordersBurst),
+                EndpointClass.MATCHING, new Limit(matchingRate, matchingBurst),
+                EndpointClass.STREAMS, new Limit(streamsRate, streamsBurst),
+                EndpointClass.DEFAULT, new Limit(defaultRate, defaultBurst));
+        this.addressLimits = new EnumMap<>(EndpointClass.class);
+        limits.forEach((endpointClass, limit) -> {
+            Limit addressLimit = new Limit(limit.rate() * addressMultiplier, limit.burst() * addressMultiplier);
+            addressLimits.put(endpointClass, addressLimit);
+            overflowBuckets.put(endpointClass, addressLimit.newBucket());
+        });
+        this.maxBuckets = maxBuckets;
+
+        Gauge.builder("trading.admission.in-flight", inFlight, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("trading.admission.buckets", buckets, Map::size).register(meterRegistry);
+        this.rateLimited = Counter.builder("trading.admission.rejected").tag("reason", "rate").register(meterRegistry);
+        this.shed = Counter.builder("trading.admission.rejected").tag("reason", "overload").register(meterRegistry);
+
+        // Buckets that have refilled are equivalent to new ones; drop them to bound memory
+        this.bucketEviction = Flux.interval(Duration.ofMinutes(1))
+                .subscribe(tick -> {
+                    long now = System.nanoTime();
+                    buckets.values().removeIf(bucket -> bucket.isIdle(now));
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        bucketEviction.dispose();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+        if (!enabled || !(path.startsWith("/api/") || path.startsWith("/ws/"))) {
+            return chain.filter(exchange);
+        }
+
+        EndpointClass endpointClass = classify(request, path);
+        long now = System.nanoTime();
+        TokenBucket addressBucket = bucket("address:" + remoteAddress(request) + '|' + endpointClass,
+                addressLimits.get(endpointClass));
+        long wait = (addressBucket != null ? addressBucket : overflowBuckets.get(endpointClass)).tryAcquire(now);
+        if (wait == 0) {
+            String account = account(request, path);
+            TokenBucket accountBucket = account != null
+                    ? bucket("account:" + account + '|' + endpointClass, limits.get(endpointClass))
+                    : null;
+            if (accountBucket != null) {
+                wait = accountBucket.tryAcquire(now);
+            }
+        }
+        if (wait > 0) {
+            rateLimited.increment();
+            return reject(exchange, wait, "Rate limit exceeded");
+        }
+
+        boolean cancellation = HttpMethod.PUT.equals(request.getMethod()) && CANCEL_PATH.matcher(path).matches();
+        if (!cancellation && overloaded()) {
+            shed.increment();
+            return reject(exchange, TimeUnit.SECONDS.toNanos(1), "Server is overloaded");
+        }
+
+        if (endpointClass == EndpointClass.STREAMS) {
+            return chain.filter(exchange);
+        }
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            shed.increment();
+            return reject(exchange, TimeUnit.SECONDS.toNanos(1), "Too many requests in flight");
+        }
+        return chain.filter(exchange)
+                .doFinally(signal -> inFlight.decrementAndGet());
+    }
+
+    private boolean overloaded() {
+        if (eventLoopLagMonitor.maxLagNanos() > lagThresholdNanos) {
+            return true;
+        }
+        return writeConnectionPool.getMetrics()
+                .map(PoolMetrics::pendingAcquireSize)
+                .orElse(0) > pendingAcquireThreshold;
+    }
+
+    private static EndpointClass classify(ServerHttpRequest request, String path) {
+        if (path.startsWith("/ws/") || path.endsWith("/stream") || path.endsWith("/events")
+                || path.contains("/stream/")) {
+            return EndpointClass.STREAMS;
+        }
+        if (path.startsWith("/api/trades/match/")) {
+            return EndpointClass.MATCHING;
+        }
+        if (path.startsWith("/api/orders") && !HttpMethod.GET.equals(request.getMethod())) {
+            return EndpointClass.ORDERS;
+        }
+        return EndpointClass.DEFAULT;
+    }
+
+    /**
+     * The client's bucket, or null when the table is full and the bucket
+     * does not exist yet
+     */
+    private TokenBucket bucket(String key, Limit limit) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null || buckets.size() >= maxBuckets) {
+            return bucket;
+        }
+        return buckets.computeIfAbsent(key, k -> limit.newBucket());
+    }
+
+    private static String account(ServerHttpRequest request, String path) {
+        String account = request.getHeaders().getFirst(ACCOUNT_HEADER);
+        if (account == null) {
+            account = request.getQueryParams().getFirst("accountId");
+        }
+        if (account == null) {
+            Matcher matcher = ACCOUNT_PATH.matcher(path);
+            if (matcher.lookingAt()) {
+                account = matcher.group(1);
+            }
+        }
+        return account;
+    }
+
+    private static String remoteAddress(ServerHttpRequest request) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        return remote != null && remote.getAddress() != null
+                ? remote.getAddress().getHostAddress()
+                : "unknown";
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, long retryAfterNanos, String message) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+                Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + 999_999_999L))));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("timestamp", LocalDateTime.now());
+        error.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        error.put("error", HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase());
+        error.put("message", message);
+        try {
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(objectMapper.writeValueAsBytes(error))));
+        } catch (JsonProcessingException ex) {
+            return response.setComplete();
+        }
+    }
+
+    private enum EndpointClass {
+        ORDERS, MATCHING, STREAMS, DEFAULT
+    }
+
+    private record Limit(double rate, int burst) {
+
+        private TokenBucket newBucket() {
+            return new TokenBucket(rate, burst);
+        }
+    }
+}
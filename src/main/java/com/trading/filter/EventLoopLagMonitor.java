@@ -0,0 +1,78 @@
+package com.trading.filter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.util.concurrent.EventExecutor;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.HttpResources;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Measures how late the server's Netty event loops run a task scheduled on
+ * them. A loop busy with blocking or CPU-heavy work runs the probe late, so
+ * the lag is a direct measure of how long requests wait for their loop.
+ */
+@Slf4j
+@Component
+public class EventLoopLagMonitor {
+
+    private final long probeIntervalNanos;
+    private volatile AtomicLongArray lags = new AtomicLongArray(0);
+    private volatile boolean running;
+
+    public EventLoopLagMonitor(MeterRegistry meterRegistry,
+            @Value("${trading.admission.event-loop-probe-interval:100ms}") Duration probeInterval) {
+        this.probeIntervalNanos = probeInterval.toNanos();
+        Gauge.builder("trading.eventloop.lag", this, monitor -> monitor.maxLagNanos() / 1_000_000d)
+                .description("Largest event loop scheduling delay in milliseconds")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<EventExecutor> loops = new ArrayList<>();
+        HttpResources.get().onServer(true).forEach(loops::add);
+        lags = new AtomicLongArray(loops.size());
+        running = true;
+        for (int i = 0; i < loops.size(); i++) {
+            probe(loops.get(i), i);
+        }
+        log.info("Monitoring lag of {} event loops", loops.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+    }
+
+    public long maxLagNanos() {
+        AtomicLongArray current = lags;
+        long max = 0;
+        for (int i = 0; i < current.length(); i++) {
+            max = Math.max(max, current.get(i));
+        }
+        return max;
+    }
+
+    private void probe(EventExecutor loop, int index) {
+        if (!running || loop.isShuttingDown()) {
+            return;
+        }
+        long scheduledAt = System.nanoTime();
+        loop.schedule(() -> {
+            lags.set(index, Math.max(0, System.nanoTime() - scheduledAt - probeIntervalNanos));
+            probe(loop, index);
+        }, probeIntervalNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -24,8 +24,12 @@ public class Order {
     private String side; // BUY, SELL
     private Integer quantity;
     private BigDecimal price;
-    private String status; // PENDING, EXECUTED, CANCELLED
+    private String status; // PENDING, EXECUTED, CANCELLED, EXPIRED
+    private String timeInForce; // GTC, IOC, FOK, DAY, GTD
+    private LocalDateTime expiresAt; // Set for DAY and GTD orders
+    private Integer filledQuantity;
     private LocalDateTime createdAt;
+    private LocalDateTime queuedAt; // Queue position, reset when the order re-joins the queue
     private LocalDateTime updatedAt;
     
     public Order(Long accountId, Long stockId, String orderType, String side, 
@@ -37,7 +41,10 @@ public class Order {
         this.quantity = quantity;
         this.price = price;
         this.status = status;
+        this.timeInForce = "GTC";
+        this.filledQuantity = 0;
         this.createdAt = LocalDateTime.now();
+        this.queuedAt = createdAt;
         this.updatedAt = LocalDateTime.now();
     }
 }
@@ -0,0 +1,38 @@
+package com.trading.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("price_alerts")
+public class PriceAlert {
+    
+    @Id
+    private Long id;
+    
+    private Long userId;
+    private Long stockId;
+    private String direction; // ABOVE, BELOW
+    private BigDecimal threshold;
+    private String status; // ACTIVE, TRIGGERED
+    private BigDecimal triggeredPrice;
+    private LocalDateTime createdAt;
+    private LocalDateTime triggeredAt;
+    
+    public PriceAlert(Long userId, Long stockId, String direction, BigDecimal threshold) {
+        this.userId = userId;
+        this.stockId = stockId;
+        this.direction = direction;
+        this.threshold = threshold;
+        this.status = "ACTIVE";
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,45 @@
+package com.trading.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("price_bars")
+public class PriceBar {
+
+    @Id
+    private Long id;
+
+    private Long stockId;
+    private Integer intervalSeconds;
+    private LocalDateTime bucketStart;
+    private BigDecimal openPrice;
+    private BigDecimal highPrice;
+    private BigDecimal lowPrice;
+    private BigDecimal closePrice;
+    private Long volume;
+    private LocalDateTime openedAt;
+    private LocalDateTime closedAt;
+
+    public PriceBar(Long stockId, Integer intervalSeconds, LocalDateTime bucketStart, BigDecimal price, Long volume,
+            LocalDateTime timestamp) {
+        this.stockId = stockId;
+        this.intervalSeconds = intervalSeconds;
+        this.bucketStart = bucketStart;
+        this.openPrice = price;
+        this.highPrice = price;
+        this.lowPrice = price;
+        this.closePrice = price;
+        this.volume = volume;
+        this.openedAt = timestamp;
+        this.closedAt = timestamp;
+    }
+}
@@ -1,5 +1,6 @@
 package com.trading.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.relational.core.mapping.Table;
 import lombok.AllArgsConstructor;
@@ -24,6 +25,13 @@ public class Trade {
     private Integer quantity;
     private BigDecimal price;
     private LocalDateTime executedAt;
+
+    // Set once the side's position change is written to portfolio_holdings;
+    // bookkeeping only, not part of the API representation
+    @JsonIgnore
+    private Boolean buyHoldingApplied;
+    @JsonIgnore
+    private Boolean sellHoldingApplied;
     
     public Trade(Long buyOrderId, Long sellOrderId, Long stockId, Integer quantity, BigDecimal price) {
         this.buyOrderId = buyOrderId;
@@ -32,5 +40,7 @@ public class Trade {
         this.quantity = quantity;
         this.price = price;
         this.executedAt = LocalDateTime.now();
+        this.buyHoldingApplied = false;
+        this.sellHoldingApplied = false;
     }
 }
@@ -0,0 +1,74 @@
+package com.trading.repository;
+
+import com.trading.model.MarketData;
+import com.trading.model.PriceBar;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Multi-row inserts and merges for bulk loads. Each statement carries up to
+ * {@link MultiRowStatement#ROWS_PER_STATEMENT} rows, so a batch costs one
+ * parse and one round trip instead of one per row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MarketDataBulkRepository {
+
+    private static final MultiRowStatement INSERT_MARKET_DATA = new MultiRowStatement(
+            "INSERT INTO market_data (stock_id, price, volume, timestamp) VALUES ", 4, "");
+    private static final String MERGE_PRICE_BARS_USING = "MERGE INTO price_bars b USING (VALUES ";
+    private static final String MERGE_PRICE_BARS_ON = ") AS s (stock_id, interval_seconds, bucket_start, "
+            + "open_price, high_price, low_price, close_price, volume, opened_at, closed_at) "
+            + "ON b.stock_id = s.stock_id AND b.interval_seconds = s.interval_seconds "
+            + "AND b.bucket_start = s.bucket_start "
+            + "WHEN MATCHED THEN UPDATE SET "
+            + "open_price = CASE WHEN s.opened_at < b.opened_at "
+            + "THEN s.open_price ELSE b.open_price END, "
+            + "high_price = GREATEST(b.high_price, s.high_price), "
+            + "low_price = LEAST(b.low_price, s.low_price), "
+            + "close_price = CASE WHEN s.closed_at >= b.closed_at "
+            + "THEN s.close_price ELSE b.close_price END, "
+            + "volume = b.volume + s.volume, "
+            + "opened_at = LEAST(b.opened_at, s.opened_at), "
+            + "closed_at = GREATEST(b.closed_at, s.closed_at) "
+            + "WHEN NOT MATCHED THEN INSERT (stock_id, interval_seconds, bucket_start, "
+            + "open_price, high_price, low_price, close_price, volume, opened_at, closed_at) "
+            + "VALUES (s.stock_id, s.interval_seconds, s.bucket_start, s.open_price, s.high_price, "
+            + "s.low_price, s.close_price, s.volume, s.opened_at, s.closed_at)";
+    private static final MultiRowStatement MERGE_PRICE_BARS =
+            new MultiRowStatement(MERGE_PRICE_BARS_USING, 10, MERGE_PRICE_BARS_ON);
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Long> insertMarketData(List<MarketData> rows) {
+        return INSERT_MARKET_DATA.execute(databaseClient, rows, (statement, index, row) -> statement
+                .bind(index, row.getStockId())
+                .bind(index + 1, row.getPrice())
+                .bind(index + 2, row.getVolume())
+                .bind(index + 3, row.getTimestamp()));
+    }
+
+    /**
+     * Insert bars, merging them into bars already stored for the same stock,
+     * interval and bucket: the earlier open and later close win, highs and
+     * lows combine and volumes add up. Bars of one call must have distinct
+     * buckets.
+     */
+    public Mono<Long> mergePriceBars(List<PriceBar> bars) {
+        return MERGE_PRICE_BARS.execute(databaseClient, bars, (statement, index, bar) -> statement
+                .bind(index, bar.getStockId())
+                .bind(index + 1, bar.getIntervalSeconds())
+                .bind(index + 2, bar.getBucketStart())
+                .bind(index + 3, bar.getOpenPrice())
+                .bind(index + 4, bar.getHighPrice())
+                .bind(index + 5, bar.getLowPrice())
+                .bind(index + 6, bar.getClosePrice())
+                .bind(index + 7, bar.getVolume())
+                .bind(index + 8, bar.getOpenedAt())
+                .bind(index + 9, bar.getClosedAt()));
+    }
+}
@@ -7,14 +7,23 @@ import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+
 @Repository
 public interface MarketDataRepository extends ReactiveCrudRepository<MarketData, Long> {
     
     Flux<MarketData> findByStockId(Long stockId);
     
+    @Query("SELECT * FROM market_data WHERE stock_id = :stockId AND id < :before ORDER BY id DESC LIMIT :limit")
+    Flux<MarketData> findPageByStockId(Long stockId, long before, int limit);
+    
     @Query("SELECT * FROM market_data WHERE stock_id = :stockId ORDER BY timestamp DESC LIMIT 1")
     Mono<MarketData> findLatestByStockId(Long stockId);
     
     @Query("SELECT * FROM market_data WHERE stock_id = :stockId ORDER BY timestamp DESC LIMIT :limit")
     Flux<MarketData> findRecentByStockId(Long stockId, int limit);
+
+    @Query("SELECT * FROM market_data WHERE stock_id = :stockId AND timestamp >= :from AND timestamp < :to "
+            + "ORDER BY timestamp")
+    Flux<MarketData> findRangeByStockId(Long stockId, LocalDateTime from, LocalDateTime to);
 }
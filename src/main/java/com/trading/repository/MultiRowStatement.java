@@ -0,0 +1,87 @@
+package com.trading.repository;
+
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A statement taking a list of rows as {@code ($1, $2), ($3, $4), ...}
+ * between a fixed prefix and suffix. Rows are sent in chunks of up to
+ * {@link #ROWS_PER_STATEMENT}, so a batch costs one parse and one round trip
+ * per chunk instead of one per row. The SQL for each chunk size is built once.
+ */
+final class MultiRowStatement {
+
+    static final int ROWS_PER_STATEMENT = 500;
+
+    private final String prefix;
+    private final int columns;
+    private final String suffix;
+    private final Map<Integer, String> sql = new ConcurrentHashMap<>();
+
+    MultiRowStatement(String prefix, int columns, String suffix) {
+        this.prefix = prefix;
+        this.columns = columns;
+        this.suffix = suffix;
+    }
+
+    /**
+     * Binds one row's columns starting at parameter {@code index}
+     */
+    @FunctionalInterface
+    interface RowBinder<T> {
+
+        void bind(Statement statement, int index, T row);
+    }
+
+    /**
+     * Execute over all rows, one chunk after another, and sum the updated
+     * row counts
+     */
+    <T> Mono<Long> execute(DatabaseClient databaseClient, List<T> rows, RowBinder<T> binder) {
+        return Flux.range(0, (rows.size() + ROWS_PER_STATEMENT - 1) / ROWS_PER_STATEMENT)
+                .concatMap(chunk -> {
+                    int from = chunk * ROWS_PER_STATEMENT;
+                    List<T> slice = rows.subList(from, Math.min(rows.size(), from + ROWS_PER_STATEMENT));
+                    return execute(databaseClient, sql.computeIfAbsent(slice.size(), this::sql), slice, binder);
+                })
+                .reduce(0L, Long::sum);
+    }
+
+    /**
+     * Binds on the driver statement directly; DatabaseClient copies its
+     * bindings on every bind, which is quadratic in the number of parameters
+     */
+    private <T> Mono<Long> execute(DatabaseClient databaseClient, String sql, List<T> slice, RowBinder<T> binder) {
+        return databaseClient.inConnection(connection -> {
+            Statement statement = connection.createStatement(sql);
+            int index = 0;
+            for (T row : slice) {
+                binder.bind(statement, index, row);
+                index += columns;
+            }
+            return Flux.from(statement.execute())
+                    .flatMap(Result::getRowsUpdated)
+                    .reduce(0L, Long::sum);
+        });
+    }
+
+    private String sql(int rows) {
+        StringBuilder sql = new StringBuilder(prefix);
+        int marker = 1;
+        for (int row = 0; row < rows; row++) {
+            sql.append(row == 0 ? "(" : ", (");
+            for (int column = 0; column < columns; column++) {
+                sql.append(column == 0 ? "$" : ", $").append(marker++);
+            }
+            sql.append(')');
+        }
+        return sql.append(suffix).toString();
+    }
+}
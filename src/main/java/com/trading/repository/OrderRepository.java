@@ -1,10 +1,16 @@
 package com.trading.repository;
 
 import com.trading.model.Order;
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 
 @Repository
 public interface OrderRepository extends ReactiveCrudRepository<Order, Long> {
@@ -15,6 +21,77 @@ public interface OrderRepository extends ReactiveCrudRepository<Order, Long> {
     
     Flux<Order> findByAccountIdAndStatus(Long accountId, String status);
     
-    @Query("SELECT * FROM orders WHERE stock_id = :stockId AND status = :status ORDER BY created_at DESC")
+    @Query("SELECT * FROM orders WHERE account_id = :accountId AND id < :before ORDER BY id DESC LIMIT :limit")
+    Flux<Order> findPageByAccountId(Long accountId, long before, int limit);
+    
+    @Query("SELECT * FROM orders WHERE status = :status AND id < :before ORDER BY id DESC LIMIT :limit")
+    Flux<Order> findPageByStatus(String status, long before, int limit);
+    
+    @Query("SELECT * FROM orders WHERE created_at BETWEEN :startDate AND :endDate ORDER BY created_at DESC")
+    Flux<Order> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
+    
+    Flux<Order> findByOrderTypeAndStatus(String orderType, String status);
+    
+    Flux<Order> findByStatusAndExpiresAtIsNotNull(String status);
+    
+    @Query("SELECT * FROM orders WHERE stock_id = :stockId AND status = :status ORDER BY queued_at ASC, id ASC")
     Flux<Order> findByStockIdAndStatus(Long stockId, String status);
+
+    /**
+     * Amend price and/or quantity of a PENDING order in a single statement.
+     * A null argument keeps the current value. queued_at is the queue
+     * position: it is kept for a pure quantity decrease and reset on a price
+     * change or quantity increase, while created_at never changes. MARKET
+     * orders cannot be re-priced, and a BUY order may not be amended beyond
+     * the account balance, and the quantity must stay above what has already
+     * been filled.
+     */
+    @Modifying
+    @Query("UPDATE orders SET "
+            + "queued_at = CASE WHEN COALESCE(:price, price) <> price OR COALESCE(:quantity, quantity) > quantity "
+            + "THEN :now ELSE queued_at END, "
+            + "price = COALESCE(:price, price), "
+            + "quantity = COALESCE(:quantity, quantity), "
+            + "updated_at = :now "
+            + "WHERE id = :id AND status = 'PENDING' "
+            + "AND COALESCE(:quantity, quantity) > filled_quantity "
+            + "AND (order_type <> 'MARKET' OR :repriced = FALSE) "
+            + "AND (side <> 'BUY' OR COALESCE(COALESCE(:price, price) * COALESCE(:quantity, quantity), 0) "
+            + "<= (SELECT a.balance FROM accounts a WHERE a.id = orders.account_id))")
+    Mono<Integer> amendPendingOrder(Long id, Integer quantity, BigDecimal price, boolean repriced,
+            LocalDateTime now);
+
+    /**
+     * Convert triggered stop orders into MARKET orders at the triggering price.
+     * They join the queue at trigger time; created_at keeps when the stop
+     * order was placed.
+     */
+    @Modifying
+    @Query("UPDATE orders SET order_type = 'MARKET', price = :price, queued_at = :now, updated_at = :now "
+            + "WHERE id IN (:ids) AND status = 'PENDING' AND order_type = 'STOP_LOSS'")
+    Mono<Integer> convertStopOrdersToMarket(Collection<Long> ids, BigDecimal price, LocalDateTime now);
+
+    /**
+     * Apply a fill to a PENDING order; it becomes EXECUTED once fully filled.
+     */
+    @Modifying
+    @Query("UPDATE orders SET "
+            + "status = CASE WHEN filled_quantity + :quantity >= quantity THEN 'EXECUTED' ELSE status END, "
+            + "filled_quantity = filled_quantity + :quantity, "
+            + "updated_at = :now "
+            + "WHERE id = :id AND status = 'PENDING' AND quantity - filled_quantity >= :quantity")
+    Mono<Integer> recordFill(Long id, int quantity, LocalDateTime now);
+
+    /**
+     * Cancel whatever is left of IOC and FOK orders after a matching pass.
+     */
+    @Modifying
+    @Query("UPDATE orders SET status = 'CANCELLED', updated_at = :now "
+            + "WHERE stock_id = :stockId AND status = 'PENDING' AND time_in_force IN ('IOC', 'FOK') "
+            + "AND created_at <= :cutoff")
+    Mono<Integer> cancelUnfilledImmediateOrders(Long stockId, LocalDateTime cutoff, LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE orders SET status = 'EXPIRED', updated_at = :now WHERE id IN (:ids) AND status = 'PENDING'")
+    Mono<Integer> expireOrders(Collection<Long> ids, LocalDateTime now);
 }
@@ -0,0 +1,53 @@
+package com.trading.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Multi-row writes of holdings keyed by (account, stock), used to flush
+ * positions changed in memory. Each statement carries up to
+ * {@link MultiRowStatement#ROWS_PER_STATEMENT} positions.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PortfolioHoldingBulkRepository {
+
+    private static final MultiRowStatement MERGE_HOLDINGS = new MultiRowStatement("MERGE INTO portfolio_holdings "
+            + "(account_id, stock_id, quantity, average_price, last_updated) KEY (account_id, stock_id) VALUES ",
+            5, "");
+    private static final MultiRowStatement DELETE_HOLDINGS = new MultiRowStatement(
+            "DELETE FROM portfolio_holdings WHERE (account_id, stock_id) IN (", 2, ")");
+
+    private final DatabaseClient databaseClient;
+
+    public record HoldingRow(long accountId, long stockId, int quantity, BigDecimal averagePrice) {
+    }
+
+    /**
+     * Insert positions, replacing the stored quantity and average price of
+     * positions already held
+     */
+    public Mono<Long> mergeHoldings(List<HoldingRow> rows, LocalDateTime now) {
+        return MERGE_HOLDINGS.execute(databaseClient, rows, (statement, index, row) -> statement
+                .bind(index, row.accountId())
+                .bind(index + 1, row.stockId())
+                .bind(index + 2, row.quantity())
+                .bind(index + 3, row.averagePrice())
+                .bind(index + 4, now));
+    }
+
+    /**
+     * Delete closed positions; quantity and price in the rows are ignored
+     */
+    public Mono<Long> deleteHoldings(List<HoldingRow> rows) {
+        return DELETE_HOLDINGS.execute(databaseClient, rows, (statement, index, row) -> statement
+                .bind(index, row.accountId())
+                .bind(index + 1, row.stockId()));
+    }
+}
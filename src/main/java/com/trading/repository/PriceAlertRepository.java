@@ -0,0 +1,30 @@
+package com.trading.repository;
+
+import com.trading.model.PriceAlert;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface PriceAlertRepository extends ReactiveCrudRepository<PriceAlert, Long> {
+    
+    Flux<PriceAlert> findByStatus(String status);
+    
+    @Query("SELECT * FROM price_alerts WHERE user_id = :userId ORDER BY id DESC")
+    Flux<PriceAlert> findByUserId(Long userId);
+    
+    /**
+     * Mark fired alerts as TRIGGERED at the price that crossed them
+     */
+    @Modifying
+    @Query("UPDATE price_alerts SET status = 'TRIGGERED', triggered_price = :price, triggered_at = :now "
+            + "WHERE id IN (:ids) AND status = 'ACTIVE'")
+    Mono<Integer> markTriggered(Collection<Long> ids, BigDecimal price, LocalDateTime now);
+}
@@ -0,0 +1,17 @@
+package com.trading.repository;
+
+import com.trading.model.PriceBar;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface PriceBarRepository extends ReactiveCrudRepository<PriceBar, Long> {
+
+    @Query("SELECT * FROM price_bars WHERE stock_id = :stockId AND interval_seconds = :intervalSeconds "
+            + "AND bucket_start >= :from AND bucket_start < :to ORDER BY bucket_start")
+    Flux<PriceBar> findBars(Long stockId, int intervalSeconds, LocalDateTime from, LocalDateTime to);
+}
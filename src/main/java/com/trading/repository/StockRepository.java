@@ -1,15 +1,28 @@
 package com.trading.repository;
 
 import com.trading.model.Stock;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
 @Repository
 public interface StockRepository extends ReactiveCrudRepository<Stock, Long> {
     
     Mono<Stock> findBySymbol(String symbol);
     
     Flux<Stock> findBySector(String sector);
+
+    @Query("SELECT s.* FROM stocks s JOIN watchlist_items w ON w.stock_id = s.id "
+            + "WHERE w.watchlist_id = :watchlistId ORDER BY w.id")
+    Flux<Stock> findByWatchlistId(Long watchlistId);
+
+    @Modifying
+    @Query("UPDATE stocks SET current_price = :price, last_updated = :lastUpdated WHERE id = :id")
+    Mono<Integer> updatePrice(Long id, BigDecimal price, LocalDateTime lastUpdated);
 }
@@ -1,21 +1,69 @@
 package com.trading.repository;
 
+import com.trading.dto.Fill;
+import com.trading.dto.PendingHoldingTrade;
 import com.trading.model.Trade;
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 
 @Repository
 public interface TradeRepository extends ReactiveCrudRepository<Trade, Long> {
     
     Flux<Trade> findByStockId(Long stockId);
     
+    @Query("SELECT * FROM trades WHERE stock_id = :stockId AND id < :before ORDER BY id DESC LIMIT :limit")
+    Flux<Trade> findPageByStockId(Long stockId, long before, int limit);
+    
     @Query("SELECT * FROM trades WHERE executed_at BETWEEN :startDate AND :endDate ORDER BY executed_at DESC")
     Flux<Trade> findByExecutedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
     
     @Query("SELECT * FROM trades ORDER BY executed_at DESC LIMIT :limit")
     Flux<Trade> findRecentTrades(int limit);
+    
+    /**
+     * Fills for an account, newest first: trades joined to the account's
+     * orders on the buy side and on the sell side in one query. A self-trade
+     * gives two fills with the same trade id, so pages are keyed on
+     * (trade id, side).
+     */
+    @Query("SELECT * FROM ("
+            + "SELECT t.id AS trade_id, o.id AS order_id, t.stock_id, o.side, t.quantity, t.price, t.executed_at "
+            + "FROM orders o JOIN trades t ON t.buy_order_id = o.id "
+            + "WHERE o.account_id = :accountId AND t.executed_at >= :from AND t.executed_at < :to "
+            + "AND t.id <= :before "
+            + "UNION ALL "
+            + "SELECT t.id AS trade_id, o.id AS order_id, t.stock_id, o.side, t.quantity, t.price, t.executed_at "
+            + "FROM orders o JOIN trades t ON t.sell_order_id = o.id "
+            + "WHERE o.account_id = :accountId AND t.executed_at >= :from AND t.executed_at < :to "
+            + "AND t.id <= :before"
+            + ") fills WHERE trade_id < :before OR (trade_id = :before AND side > :beforeSide) "
+            + "ORDER BY trade_id DESC, side LIMIT :limit")
+    Flux<Fill> findFillsByAccountId(Long accountId, LocalDateTime from, LocalDateTime to, long before,
+            String beforeSide, int limit);
+
+    /**
+     * Trades with a side whose holding change is not stored yet, oldest
+     * first, with the accounts of both sides
+     */
+    @Query("SELECT t.id AS trade_id, t.stock_id, t.quantity, t.price, "
+            + "b.account_id AS buy_account_id, s.account_id AS sell_account_id, "
+            + "t.buy_holding_applied, t.sell_holding_applied "
+            + "FROM trades t JOIN orders b ON b.id = t.buy_order_id JOIN orders s ON s.id = t.sell_order_id "
+            + "WHERE t.buy_holding_applied = FALSE OR t.sell_holding_applied = FALSE ORDER BY t.id")
+    Flux<PendingHoldingTrade> findPendingHoldingTrades();
+
+    @Modifying
+    @Query("UPDATE trades SET buy_holding_applied = TRUE WHERE id IN (:ids)")
+    Mono<Integer> markBuyHoldingsApplied(Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE trades SET sell_holding_applied = TRUE WHERE id IN (:ids)")
+    Mono<Integer> markSellHoldingsApplied(Collection<Long> ids);
 }
@@ -1,15 +1,36 @@
 package com.trading.repository;
 
 import com.trading.model.WatchlistItem;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 @Repository
 public interface WatchlistItemRepository extends ReactiveCrudRepository<WatchlistItem, Long> {
     
     Flux<WatchlistItem> findByWatchlistId(Long watchlistId);
     
     Mono<Void> deleteByWatchlistIdAndStockId(Long watchlistId, Long stockId);
+
+    /**
+     * Add existing stocks in one statement, skipping those already on the watchlist
+     */
+    @Modifying
+    @Query("INSERT INTO watchlist_items (watchlist_id, stock_id) "
+            + "SELECT :watchlistId, s.id FROM stocks s WHERE s.id IN (:stockIds) "
+            + "AND NOT EXISTS (SELECT 1 FROM watchlist_items w WHERE w.watchlist_id = :watchlistId AND w.stock_id = s.id)")
+    Mono<Integer> addStocks(Long watchlistId, Collection<Long> stockIds);
+
+    @Modifying
+    @Query("DELETE FROM watchlist_items WHERE watchlist_id = :watchlistId AND stock_id IN (:stockIds)")
+    Mono<Integer> removeStocks(Long watchlistId, Collection<Long> stockIds);
+
+    @Modifying
+    @Query("DELETE FROM watchlist_items WHERE watchlist_id = :watchlistId")
+    Mono<Integer> deleteAllByWatchlistId(Long watchlistId);
 }
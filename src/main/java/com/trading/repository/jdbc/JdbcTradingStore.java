@@ -0,0 +1,274 @@
+package com.trading.repository.jdbc;
+
+import com.trading.model.Order;
+import com.trading.model.Trade;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The order placement, settlement and history operations of the R2DBC
+ * repositories, run through blocking JDBC. Each call takes a connection from
+ * the pool on the given scheduler (virtual threads where the JVM has them),
+ * so callers still get a Mono or Flux.
+ */
+public class JdbcTradingStore {
+
+    private static final String INSERT_ORDER = "INSERT INTO orders (account_id, stock_id, order_type, side, "
+            + "quantity, price, status, time_in_force, expires_at, filled_quantity, created_at, queued_at, "
+            + "updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_TRADE = "INSERT INTO trades (buy_order_id, sell_order_id, stock_id, "
+            + "quantity, price, executed_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String RECORD_FILL = "UPDATE orders SET "
+            + "status = CASE WHEN filled_quantity + ? >= quantity THEN 'EXECUTED' ELSE status END, "
+            + "filled_quantity = filled_quantity + ?, updated_at = ? "
+            + "WHERE id = ? AND status = 'PENDING' AND quantity - filled_quantity >= ?";
+    private static final String SELECT_BALANCE = "SELECT balance FROM accounts WHERE id = ?";
+    private static final String UPDATE_BALANCE = "UPDATE accounts SET balance = ? WHERE id = ?";
+    private static final String ORDERS_PAGE_BY_ACCOUNT =
+            "SELECT * FROM orders WHERE account_id = ? AND id < ? ORDER BY id DESC LIMIT ?";
+    private static final String TRADES_PAGE_BY_STOCK =
+            "SELECT * FROM trades WHERE stock_id = ? AND id < ? ORDER BY id DESC LIMIT ?";
+
+    private final DataSource dataSource;
+    private final Scheduler scheduler;
+
+    public JdbcTradingStore(DataSource dataSource, Scheduler scheduler) {
+        this.dataSource = dataSource;
+        this.scheduler = scheduler;
+    }
+
+    public Mono<Order> insertOrder(Order order) {
+        return call(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_ORDER,
+                    Statement.RETURN_GENERATED_KEYS)) {
+                bindOrder(statement, order);
+                statement.executeUpdate();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    keys.next();
+                    order.setId(keys.getLong(1));
+                }
+            }
+            return order;
+        });
+    }
+
+    /**
+     * Insert orders as one JDBC batch in one transaction. Ids are not read back.
+     */
+    public Mono<Integer> insertOrders(List<Order> orders) {
+        return call(connection -> {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_ORDER)) {
+                for (Order order : orders) {
+                    bindOrder(statement, order);
+                    statement.addBatch();
+                }
+                int inserted = 0;
+                for (int count : statement.executeBatch()) {
+                    inserted += Math.max(count, 0);
+                }
+                connection.commit();
+                return inserted;
+            } catch (SQLException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        });
+    }
+
+    /**
+     * Settle a trade in one transaction: fill both orders, insert the trade
+     * and move the trade amount between the two accounts.
+     */
+    public Mono<Trade> settle(Order buyOrder, Order sellOrder, int quantity, BigDecimal price) {
+        return call(connection -> {
+            connection.setAutoCommit(false);
+            try {
+                LocalDateTime now = LocalDateTime.now();
+                recordFill(connection, buyOrder.getId(), quantity, now);
+                recordFill(connection, sellOrder.getId(), quantity, now);
+
+                Trade trade = new Trade(buyOrder.getId(), sellOrder.getId(), buyOrder.getStockId(), quantity, price);
+                try (PreparedStatement statement = connection.prepareStatement(INSERT_TRADE,
+                        Statement.RETURN_GENERATED_KEYS)) {
+                    statement.setLong(1, trade.getBuyOrderId());
+                    statement.setLong(2, trade.getSellOrderId());
+                    statement.setLong(3, trade.getStockId());
+                    statement.setInt(4, quantity);
+                    statement.setBigDecimal(5, price);
+                    statement.setTimestamp(6, Timestamp.valueOf(trade.getExecutedAt()));
+                    statement.executeUpdate();
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        keys.next();
+                        trade.setId(keys.getLong(1));
+                    }
+                }
+
+                BigDecimal amount = price.multiply(BigDecimal.valueOf(quantity));
+                adjustBalance(connection, buyOrder.getAccountId(), amount.negate());
+                adjustBalance(connection, sellOrder.getAccountId(), amount);
+
+                connection.commit();
+                return trade;
+            } catch (SQLException | RuntimeException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        });
+    }
+
+    public Flux<Order> findOrdersPageByAccountId(Long accountId, long before, int limit) {
+        return call(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(ORDERS_PAGE_BY_ACCOUNT)) {
+                statement.setLong(1, accountId);
+                statement.setLong(2, before);
+                statement.setInt(3, limit);
+                try (ResultSet rows = statement.executeQuery()) {
+                    List<Order> orders = new ArrayList<>(limit);
+                    while (rows.next()) {
+                        orders.add(mapOrder(rows));
+                    }
+                    return orders;
+                }
+            }
+        }).flatMapIterable(orders -> orders);
+    }
+
+    public Flux<Trade> findTradesPageByStockId(Long stockId, long before, int limit) {
+        return call(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(TRADES_PAGE_BY_STOCK)) {
+                statement.setLong(1, stockId);
+                statement.setLong(2, before);
+                statement.setInt(3, limit);
+                try (ResultSet rows = statement.executeQuery()) {
+                    List<Trade> trades = new ArrayList<>(limit);
+                    while (rows.next()) {
+                        trades.add(mapTrade(rows));
+                    }
+                    return trades;
+                }
+            }
+        }).flatMapIterable(trades -> trades);
+    }
+
+    private <T> Mono<T> call(ConnectionCallback<T> callback) {
+        return Mono.fromCallable(() -> {
+            try (Connection connection = dataSource.getConnection()) {
+                return callback.doInConnection(connection);
+            }
+        }).subscribeOn(scheduler);
+    }
+
+    private static void recordFill(Connection connection, Long orderId, int quantity, LocalDateTime now)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(RECORD_FILL)) {
+            statement.setInt(1, quantity);
+            statement.setInt(2, quantity);
+            statement.setTimestamp(3, Timestamp.valueOf(now));
+            statement.setLong(4, orderId);
+            statement.setInt(5, quantity);
+            if (statement.executeUpdate() == 0) {
+                throw new IllegalStateException("Order " + orderId + " cannot be filled for " + quantity);
+            }
+        }
+    }
+
+    // Read then write the balance, the same round trips as AccountService.updateBalance
+    private static void adjustBalance(Connection connection, Long accountId, BigDecimal amount)
+            throws SQLException {
+        BigDecimal balance;
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_BALANCE)) {
+            statement.setLong(1, accountId);
+            try (ResultSet rows = statement.executeQuery()) {
+                if (!rows.next()) {
+                    throw new IllegalArgumentException("Account not found");
+                }
+                balance = rows.getBigDecimal(1);
+            }
+        }
+        try (PreparedStatement statement = connection.prepareStatement(UPDATE_BALANCE)) {
+            statement.setBigDecimal(1, balance.add(amount));
+            statement.setLong(2, accountId);
+            statement.executeUpdate();
+        }
+    }
+
+    private static void bindOrder(PreparedStatement statement, Order order) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        statement.setLong(1, order.getAccountId());
+        statement.setLong(2, order.getStockId());
+        statement.setString(3, order.getOrderType());
+        statement.setString(4, order.getSide());
+        statement.setInt(5, order.getQuantity());
+        statement.setBigDecimal(6, order.getPrice());
+        statement.setString(7, order.getStatus());
+        statement.setString(8, order.getTimeInForce());
+        if (order.getExpiresAt() != null) {
+            statement.setTimestamp(9, Timestamp.valueOf(order.getExpiresAt()));
+        } else {
+            statement.setNull(9, Types.TIMESTAMP);
+        }
+        statement.setInt(10, order.getFilledQuantity());
+        statement.setTimestamp(11, Timestamp.valueOf(order.getCreatedAt() != null ? order.getCreatedAt() : now));
+        statement.setTimestamp(12, Timestamp.valueOf(order.getQueuedAt() != null ? order.getQueuedAt() : now));
+        statement.setTimestamp(13, Timestamp.valueOf(order.getUpdatedAt() != null ? order.getUpdatedAt() : now));
+    }
+
+    private static Order mapOrder(ResultSet rows) throws SQLException {
+        Order order = new Order();
+        order.setId(rows.getLong("id"));
+        order.setAccountId(rows.getLong("account_id"));
+        order.setStockId(rows.getLong("stock_id"));
+        order.setOrderType(rows.getString("order_type"));
+        order.setSide(rows.getString("side"));
+        order.setQuantity(rows.getInt("quantity"));
+        order.setPrice(rows.getBigDecimal("price"));
+        order.setStatus(rows.getString("status"));
+        order.setTimeInForce(rows.getString("time_in_force"));
+        order.setExpiresAt(toDateTime(rows.getTimestamp("expires_at")));
+        order.setFilledQuantity(rows.getInt("filled_quantity"));
+        order.setCreatedAt(toDateTime(rows.getTimestamp("created_at")));
+        order.setQueuedAt(toDateTime(rows.getTimestamp("queued_at")));
+        order.setUpdatedAt(toDateTime(rows.getTimestamp("updated_at")));
+        return order;
+    }
+
+    private static Trade mapTrade(ResultSet rows) throws SQLException {
+        Trade trade = new Trade();
+        trade.setId(rows.getLong("id"));
+        trade.setBuyOrderId(rows.getLong("buy_order_id"));
+        trade.setSellOrderId(rows.getLong("sell_order_id"));
+        trade.setStockId(rows.getLong("stock_id"));
+        trade.setQuantity(rows.getInt("quantity"));
+        trade.setPrice(rows.getBigDecimal("price"));
+        trade.setExecutedAt(toDateTime(rows.getTimestamp("executed_at")));
+        return trade;
+    }
+
+    private static LocalDateTime toDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    @FunctionalInterface
+    private interface ConnectionCallback<T> {
+        T doInConnection(Connection connection) throws SQLException;
+    }
+}
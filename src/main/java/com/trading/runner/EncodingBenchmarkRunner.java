@@ -0,0 +1,121 @@
+package com.trading.runner;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.trading.model.MarketData;
+import com.trading.model.Trade;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Measures how fast trade and market data lists encode as JSON and as Smile,
+ * with the reflective bean serializers and with the hand-written ones, then
+ * exits. Run with {@code --spring.profiles.active=encoding-benchmark}.
+ */
+@Slf4j
+@Component
+@Profile("encoding-benchmark")
+@RequiredArgsConstructor
+public class EncodingBenchmarkRunner implements ApplicationRunner {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+    private final ApplicationContext applicationContext;
+
+    @Value("${trading.benchmark.records:10000}")
+    private int records;
+
+    @Value("${trading.benchmark.rounds:50}")
+    private int rounds;
+
+    @Value("${trading.benchmark.exit:true}")
+    private boolean exit;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        // Same settings as the application mappers, minus the hand-written serializers
+        ObjectMapper reflectiveJson = reflective(new Jackson2ObjectMapperBuilder());
+        ObjectMapper reflectiveSmile = reflective(new Jackson2ObjectMapperBuilder().factory(new SmileFactory()));
+        ObjectMapper tunedSmile = objectMapperBuilder.getObject().factory(new SmileFactory()).build();
+
+        List<Trade> trades = IntStream.range(0, records).mapToObj(EncodingBenchmarkRunner::trade).toList();
+        List<MarketData> ticks = IntStream.range(0, records).mapToObj(EncodingBenchmarkRunner::tick).toList();
+        log.info("Encoding lists of {} records, {} rounds per scenario", records, rounds);
+
+        List<Result> results = new ArrayList<>();
+        results.add(measure("trades / json reflective", reflectiveJson, trades));
+        results.add(measure("trades / json tuned", objectMapper, trades));
+        results.add(measure("trades / smile reflective", reflectiveSmile, trades));
+        results.add(measure("trades / smile tuned", tunedSmile, trades));
+        results.add(measure("market data / json reflective", reflectiveJson, ticks));
+        results.add(measure("market data / json tuned", objectMapper, ticks));
+        results.add(measure("market data / smile reflective", reflectiveSmile, ticks));
+        results.add(measure("market data / smile tuned", tunedSmile, ticks));
+
+        log.info(String.format("%-32s %14s %10s %14s", "scenario", "records/s", "MB/s", "bytes/record"));
+        results.forEach(result -> log.info(result.toString()));
+
+        if (exit) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+
+    private Result measure(String name, ObjectMapper mapper, List<?> values) throws Exception {
+        // Warm up the serializer caches and the JIT before timing
+        for (int i = 0; i < Math.max(1, rounds); i++) {
+            mapper.writeValueAsBytes(values);
+        }
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            bytes += mapper.writeValueAsBytes(values).length;
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000d;
+        long encoded = (long) values.size() * rounds;
+        return new Result(name, encoded / seconds, bytes / seconds / (1024 * 1024), (double) bytes / encoded);
+    }
+
+    private static ObjectMapper reflective(Jackson2ObjectMapperBuilder builder) {
+        return builder.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+    }
+
+    private static Trade trade(int i) {
+        Trade trade = new Trade(2L * i, 2L * i + 1, (long) (i % 20) + 1, 1 + i % 500,
+                BigDecimal.valueOf(10_000 + i % 90_000, 2));
+        trade.setId((long) i);
+        return trade;
+    }
+
+    private static MarketData tick(int i) {
+        MarketData tick = new MarketData((long) (i % 20) + 1, BigDecimal.valueOf(10_000 + i % 90_000, 2),
+                1_000_000L + i);
+        tick.setId((long) i);
+        tick.setTimestamp(LocalDateTime.now().minusSeconds(i));
+        return tick;
+    }
+
+    private record Result(String name, double recordsPerSecond, double megabytesPerSecond, double bytesPerRecord) {
+
+        @Override
+        public String toString() {
+            return String.format("%-32s %14.0f %10.1f %14.1f", name, recordsPerSecond, megabytesPerSecond,
+                    bytesPerRecord);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.trading.runner;
+
+import com.trading.dto.IngestReport;
+import com.trading.service.MarketDataIngestService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Loads a CSV file of market data into the configured database, then exits.
+ * Run with {@code --spring.profiles.active=import --trading.import.file=...}
+ * and optionally {@code --trading.import.rollup-seconds=60}.
+ */
+@Slf4j
+@Component
+@Profile("import")
+@RequiredArgsConstructor
+public class MarketDataImportRunner implements ApplicationRunner {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final MarketDataIngestService marketDataIngestService;
+    private final ApplicationContext applicationContext;
+
+    @Value("${trading.import.file}")
+    private Path file;
+
+    @Value("${trading.import.rollup-seconds:#{null}}")
+    private Integer rollupSeconds;
+
+    @Value("${trading.import.exit:true}")
+    private boolean exit;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!Files.isReadable(file)) {
+            throw new IllegalArgumentException("Cannot read " + file);
+        }
+        log.info("Importing market data from {} ({} bytes)", file, file.toFile().length());
+
+        IngestReport report = marketDataIngestService.ingest(
+                DataBufferUtils.read(file, DefaultDataBufferFactory.sharedInstance, CHUNK_SIZE),
+                rollupSeconds).block();
+        log.info("{} lines, {} rows inserted, {} rejected, {} bars, {} rows/s", report.getLines(),
+                report.getInserted(), report.getRejected(), report.getBars(), report.getRowsPerSecond());
+
+        if (exit) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.trading.runner;
+
+import com.trading.model.Account;
+import com.trading.model.Order;
+import com.trading.model.Trade;
+import com.trading.repository.AccountRepository;
+import com.trading.repository.OrderRepository;
+import com.trading.repository.TradeRepository;
+import com.trading.repository.jdbc.JdbcTradingStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the R2DBC repositories with the JDBC store on order placement,
+ * settlement and history queries, then exits. Run with
+ * {@code --spring.profiles.active=benchmark}; each scenario runs the same
+ * number of operations at the same concurrency against both stacks.
+ */
+@Slf4j
+@Component
+@Profile("benchmark")
+@RequiredArgsConstructor
+public class PersistenceBenchmarkRunner implements ApplicationRunner {
+
+    private static final Long BUY_ACCOUNT = 1L;
+    private static final Long SELL_ACCOUNT = 2L;
+    private static final Long STOCK = 1L;
+
+    private final OrderRepository orderRepository;
+    private final TradeRepository tradeRepository;
+    private final AccountRepository accountRepository;
+    private final JdbcTradingStore jdbcTradingStore;
+    private final TransactionalOperator transactionalOperator;
+    private final ApplicationContext applicationContext;
+
+    @Value("${trading.benchmark.iterations:2000}")
+    private int iterations;
+
+    @Value("${trading.benchmark.concurrency:32}")
+    private int concurrency;
+
+    @Value("${trading.benchmark.batch-size:100}")
+    private int batchSize;
+
+    @Value("${trading.benchmark.exit:true}")
+    private boolean exit;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Benchmarking {} operations per scenario at concurrency {} on Java {}",
+                iterations, concurrency, Runtime.version().feature());
+
+        // Warm both stacks so connection setup and JIT do not skew the first scenario
+        measure("warm-up r2dbc", iterations / 4, 1, i -> orderRepository.save(newOrder("BUY")));
+        measure("warm-up jdbc", iterations / 4, 1, i -> jdbcTradingStore.insertOrder(newOrder("BUY")));
+
+        List<Result> results = new ArrayList<>();
+        results.add(measure("place order / r2dbc", iterations, 1,
+                i -> orderRepository.save(newOrder("BUY"))));
+        results.add(measure("place order / jdbc", iterations, 1,
+                i -> jdbcTradingStore.insertOrder(newOrder("BUY"))));
+        results.add(measure("place order / jdbc batch of " + batchSize, iterations / batchSize, batchSize,
+                i -> jdbcTradingStore.insertOrders(newOrders(batchSize))));
+
+        List<Order[]> r2dbcPairs = orderPairs();
+        results.add(measure("settle trade / r2dbc", iterations, 1, i -> settleR2dbc(r2dbcPairs.get(i))));
+        List<Order[]> jdbcPairs = orderPairs();
+        results.add(measure("settle trade / jdbc", iterations, 1,
+                i -> jdbcTradingStore.settle(jdbcPairs.get(i)[0], jdbcPairs.get(i)[1], 1, BigDecimal.ONE)));
+
+        results.add(measure("order history page / r2dbc", iterations, 1,
+                i -> orderRepository.findPageByAccountId(BUY_ACCOUNT, Long.MAX_VALUE, 100).then()));
+        results.add(measure("order history page / jdbc", iterations, 1,
+                i -> jdbcTradingStore.findOrdersPageByAccountId(BUY_ACCOUNT, Long.MAX_VALUE, 100).then()));
+        results.add(measure("trade history page / r2dbc", iterations, 1,
+                i -> tradeRepository.findPageByStockId(STOCK, Long.MAX_VALUE, 100).then()));
+        results.add(measure("trade history page / jdbc", iterations, 1,
+                i -> jdbcTradingStore.findTradesPageByStockId(STOCK, Long.MAX_VALUE, 100).then()));
+
+        log.info(String.format("%-36s %10s %12s %10s %10s", "scenario", "ops", "ops/s", "p50 ms", "p99 ms"));
+        results.forEach(result -> log.info(result.toString()));
+
+        if (exit) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+
+    /**
+     * Mirrors the settlement writes of TradeService.executeTrade, in one
+     * transaction like the JDBC store's settle
+     */
+    private Mono<Trade> settleR2dbc(Order[] pair) {
+        Order buyOrder = pair[0];
+        Order sellOrder = pair[1];
+        LocalDateTime now = LocalDateTime.now();
+        return orderRepository.recordFill(buyOrder.getId(), 1, now)
+                .then(orderRepository.recordFill(sellOrder.getId(), 1, now))
+                .then(tradeRepository.save(new Trade(buyOrder.getId(), sellOrder.getId(), STOCK, 1, BigDecimal.ONE)))
+                .flatMap(trade -> adjustBalance(BUY_ACCOUNT, BigDecimal.ONE.negate())
+                        .then(adjustBalance(SELL_ACCOUNT, BigDecimal.ONE))
+                        .thenReturn(trade))
+                .as(transactionalOperator::transactional);
+    }
+
+    private Mono<Account> adjustBalance(Long accountId, BigDecimal amount) {
+        return accountRepository.findById(accountId)
+                .flatMap(account -> {
+                    account.setBalance(account.getBalance().add(amount));
+                    return accountRepository.save(account);
+                });
+    }
+
+    private List<Order[]> orderPairs() {
+        List<Order> buys = orderRepository.saveAll(newOrders(iterations)).collectList().block();
+        List<Order> sells = orderRepository.saveAll(IntStream.range(0, iterations)
+                .mapToObj(i -> newOrder("SELL"))
+                .toList()).collectList().block();
+        return IntStream.range(0, iterations)
+                .mapToObj(i -> new Order[] {buys.get(i), sells.get(i)})
+                .toList();
+    }
+
+    private Result measure(String name, int operations, int opsPerCall, IntFunction<Mono<?>> operation) {
+        long[] latencies = new long[operations];
+        long start = System.nanoTime();
+        Flux.range(0, operations)
+                .flatMap(i -> Mono.defer(() -> {
+                    long operationStart = System.nanoTime();
+                    return operation.apply(i)
+                            .then()
+                            .doOnSuccess(done -> latencies[i] = System.nanoTime() - operationStart);
+                }), concurrency)
+                .blockLast();
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        long ops = (long) operations * opsPerCall;
+        return new Result(name, ops, ops * 1_000_000_000d / elapsed,
+                percentile(latencies, 0.50), percentile(latencies, 0.99));
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = Math.min(sortedNanos.length - 1, (int) Math.ceil(percentile * sortedNanos.length) - 1);
+        return sortedNanos[Math.max(index, 0)] / 1_000_000d;
+    }
+
+    private static List<Order> newOrders(int count) {
+        return IntStream.range(0, count).mapToObj(i -> newOrder("BUY")).toList();
+    }
+
+    private static Order newOrder(String side) {
+        return new Order("BUY".equals(side) ? BUY_ACCOUNT : SELL_ACCOUNT, STOCK, "LIMIT", side, 1,
+                BigDecimal.ONE, "PENDING");
+    }
+
+    private record Result(String name, long ops, double opsPerSecond, double p50Millis, double p99Millis) {
+
+        @Override
+        public String toString() {
+            return String.format("%-36s %10d %12.0f %10.3f %10.3f", name, ops, opsPerSecond, p50Millis, p99Millis);
+        }
+    }
+}
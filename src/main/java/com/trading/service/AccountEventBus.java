@@ -0,0 +1,150 @@
+package com.trading.service;
+
+import com.trading.dto.AccountEvent;
+import com.trading.model.Order;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process bus of per-account events. Each account keeps its last events
+ * so a client that reconnects can resume after the sequence number it last
+ * saw. If that event is no longer retained, or was issued before a
+ * restart, the stream starts with a RESYNC_REQUIRED event and the client
+ * should reload over REST. Channels without subscribers are dropped once
+ * idle for the configured time; a client resuming after that gets
+ * RESYNC_REQUIRED as after a restart.
+ */
+@Component
+public class AccountEventBus {
+
+    public static final String ORDER_ACCEPTED = "ORDER_ACCEPTED";
+    public static final String ORDER_AMENDED = "ORDER_AMENDED";
+    public static final String ORDER_PARTIALLY_FILLED = "ORDER_PARTIALLY_FILLED";
+    public static final String ORDER_FILLED = "ORDER_FILLED";
+    public static final String ORDER_CANCELLED = "ORDER_CANCELLED";
+    public static final String ORDER_EXPIRED = "ORDER_EXPIRED";
+    public static final String ORDER_UPDATED = "ORDER_UPDATED";
+    public static final String BALANCE_CHANGED = "BALANCE_CHANGED";
+    public static final String HOLDING_CHANGED = "HOLDING_CHANGED";
+    public static final String RESYNC_REQUIRED = "RESYNC_REQUIRED";
+
+    private final int replayCapacity;
+    private final long idleNanos;
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final Disposable channelEviction;
+
+    public AccountEventBus(@Value("${trading.events.replay-capacity:256}") int replayCapacity,
+            @Value("${trading.events.idle-timeout:10m}") Duration idleTimeout) {
+        this.replayCapacity = replayCapacity;
+        this.idleNanos = idleTimeout.toNanos();
+
+        this.channelEviction = Flux.interval(Duration.ofMinutes(1))
+                .subscribe(tick -> evictIdleChannels(System.nanoTime()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        channelEviction.dispose();
+    }
+
+    public void publish(Long accountId, String type, Object data) {
+        channelFor(accountId).publish(accountId, type, data);
+    }
+
+    /**
+     * Publish an order under the event type matching its current status
+     */
+    public void publishOrder(Order order) {
+        String type = switch (order.getStatus()) {
+            case "EXECUTED" -> ORDER_FILLED;
+            case "CANCELLED" -> ORDER_CANCELLED;
+            case "EXPIRED" -> ORDER_EXPIRED;
+            default -> order.getFilledQuantity() > 0 ? ORDER_PARTIALLY_FILLED : ORDER_UPDATED;
+        };
+        publish(order.getAccountId(), type, order);
+    }
+
+    /**
+     * Events after the given sequence number, then live events. Without a
+     * sequence number only live events are sent. Callers check that the
+     * account exists.
+     */
+    public Flux<AccountEvent> subscribe(Long accountId, Long after) {
+        return Flux.defer(() -> {
+            // Counted inside compute so eviction cannot drop a channel being subscribed to
+            Channel channel = channels.compute(accountId, (id, existing) -> {
+                Channel acquired = existing != null ? existing : new Channel(replayCapacity);
+                acquired.subscribers++;
+                return acquired;
+            });
+            return channel.subscribe(accountId, after)
+                    .doFinally(signal -> channels.computeIfPresent(accountId, (id, existing) -> {
+                        existing.subscribers--;
+                        existing.lastActive = System.nanoTime();
+                        return existing;
+                    }));
+        });
+    }
+
+    int channelCount() {
+        return channels.size();
+    }
+
+    void evictIdleChannels(long now) {
+        for (Long accountId : channels.keySet()) {
+            channels.computeIfPresent(accountId,
+                    (id, channel) -> channel.subscribers == 0 && now - channel.lastActive >= idleNanos ? null : channel);
+        }
+    }
+
+    private Channel channelFor(Long accountId) {
+        return channels.computeIfAbsent(accountId, id -> new Channel(replayCapacity));
+    }
+
+    private static final class Channel {
+
+        private final Sinks.Many<AccountEvent> sink;
+        private long sequence;
+        private long oldestRetained = 1;
+        private final int capacity;
+        // Guarded by the channels map: only changed inside compute
+        private int subscribers;
+        private volatile long lastActive = System.nanoTime();
+
+        private Channel(int capacity) {
+            this.capacity = capacity;
+            this.sink = Sinks.many().replay().limit(capacity);
+        }
+
+        private synchronized void publish(Long accountId, String type, Object data) {
+            lastActive = System.nanoTime();
+            sequence++;
+            oldestRetained = Math.max(1, sequence - capacity + 1);
+            sink.tryEmitNext(new AccountEvent(accountId, sequence, type, data, LocalDateTime.now()));
+        }
+
+        private Flux<AccountEvent> subscribe(Long accountId, Long after) {
+            long from;
+            boolean gap;
+            synchronized (this) {
+                // A sequence ahead of ours was issued before a restart
+                gap = after != null && (after + 1 < oldestRetained || after > sequence);
+                from = after != null && after <= sequence ? after : sequence;
+            }
+            Flux<AccountEvent> events = sink.asFlux().filter(event -> event.getSequence() > from);
+            return gap
+                    ? Flux.just(new AccountEvent(accountId, from, RESYNC_REQUIRED, null, LocalDateTime.now()))
+                            .concatWith(events)
+                    : events;
+        }
+    }
+}
@@ -17,6 +17,7 @@ import java.util.UUID;
 public class AccountService {
 
     private final AccountRepository accountRepository;
+    private final AccountEventBus accountEventBus;
 
     public Mono<Account> createAccount(Long userId, String accountType, BigDecimal initialBalance) {
         log.debug("Creating new account for user: {}", userId);
@@ -48,7 +49,7 @@ public class AccountService {
                         return Mono.error(new IllegalStateException("Account is not active"));
                     }
                     account.setBalance(account.getBalance().add(amount));
-                    return accountRepository.save(account);
+                    return saveBalance(account);
                 });
     }
 
@@ -64,7 +65,7 @@ public class AccountService {
                         return Mono.error(new IllegalArgumentException("Insufficient balance"));
                     }
                     account.setBalance(account.getBalance().subtract(amount));
-                    return accountRepository.save(account);
+                    return saveBalance(account);
                 });
     }
 
@@ -72,7 +73,12 @@ public class AccountService {
         return accountRepository.findById(accountId)
                 .flatMap(account -> {
                     account.setBalance(newBalance);
-                    return accountRepository.save(account);
+                    return saveBalance(account);
                 });
     }
+
+    private Mono<Account> saveBalance(Account account) {
+        return accountRepository.save(account)
+                .doOnNext(saved -> accountEventBus.publish(saved.getId(), AccountEventBus.BALANCE_CHANGED, saved));
+    }
 }
@@ -0,0 +1,237 @@
+package com.trading.service;
+
+import com.trading.dto.ChartPoint;
+import com.trading.model.MarketData;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reduces a time-ordered tick stream to about {@code points} chart points in
+ * one forward pass. The range is cut into equal time buckets, so a tick's
+ * bucket is known as it arrives and nothing beyond the current buckets is
+ * held in memory.
+ * <ul>
+ *   <li>{@link Mode#LTTB}: Largest-Triangle-Three-Buckets keeps the first
+ *   and last tick and, per bucket, the tick forming the largest triangle
+ *   with the point kept before it and the average of the next bucket.
+ *   Holds two buckets of ticks.</li>
+ *   <li>{@link Mode#MIN_MAX}: keeps the lowest and highest tick of each
+ *   bucket, in time order, so no spike is lost. Holds two ticks.</li>
+ * </ul>
+ * Empty buckets produce no points.
+ */
+public final class ChartDownsampling {
+
+    public static final int MIN_POINTS = 3;
+    public static final int MAX_POINTS = 10_000;
+
+    public enum Mode {
+        LTTB, MIN_MAX;
+
+        public static Mode parse(String mode) {
+            return switch (mode.toLowerCase()) {
+                case "lttb" -> LTTB;
+                case "minmax", "min-max", "min_max" -> MIN_MAX;
+                default -> throw new IllegalArgumentException("Unknown downsampling mode: " + mode);
+            };
+        }
+    }
+
+    private ChartDownsampling() {
+    }
+
+    public static Flux<ChartPoint> downsample(Flux<MarketData> ticks, LocalDateTime from, LocalDateTime to,
+            int points, Mode mode) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Chart range must end after it starts");
+        }
+        if (points < MIN_POINTS || points > MAX_POINTS) {
+            throw new IllegalArgumentException(
+                    "Chart points must be between " + MIN_POINTS + " and " + MAX_POINTS);
+        }
+        long start = millis(from);
+        long span = millis(to) - start;
+        return Flux.defer(() -> {
+            Sampler sampler = mode == Mode.LTTB
+                    ? new LargestTriangleSampler(start, span, points - 2)
+                    : new MinMaxSampler(start, span, points / 2);
+            return ticks.concatMapIterable(sampler::add)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(sampler.finish())));
+        });
+    }
+
+    private static long millis(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static ChartPoint point(MarketData tick) {
+        return new ChartPoint(tick.getTimestamp(), tick.getPrice());
+    }
+
+    private abstract static class Sampler {
+
+        private final long start;
+        private final long span;
+        private final int buckets;
+
+        Sampler(long start, long span, int buckets) {
+            this.start = start;
+            this.span = span;
+            this.buckets = buckets;
+        }
+
+        int bucket(MarketData tick) {
+            long offset = millis(tick.getTimestamp()) - start;
+            return (int) Math.min(buckets - 1, Math.max(0, offset * buckets / span));
+        }
+
+        abstract List<ChartPoint> add(MarketData tick);
+
+        abstract List<ChartPoint> finish();
+    }
+
+    private static class LargestTriangleSampler extends Sampler {
+
+        private MarketData selected;
+        private List<MarketData> current = new ArrayList<>();
+        private int currentBucket = -1;
+        private List<MarketData> next = new ArrayList<>();
+        private int nextBucket = -1;
+
+        LargestTriangleSampler(long start, long span, int buckets) {
+            super(start, span, buckets);
+        }
+
+        @Override
+        List<ChartPoint> add(MarketData tick) {
+            if (selected == null) {
+                selected = tick;
+                return List.of(point(tick));
+            }
+            int bucket = bucket(tick);
+            if (current.isEmpty() || bucket == currentBucket) {
+                currentBucket = bucket;
+                current.add(tick);
+                return List.of();
+            }
+            if (next.isEmpty() || bucket == nextBucket) {
+                nextBucket = bucket;
+                next.add(tick);
+                return List.of();
+            }
+            // A third bucket started, so the next bucket is complete
+            MarketData chosen = largestTriangle(current, averageX(next), averageY(next));
+            selected = chosen;
+            current = next;
+            currentBucket = nextBucket;
+            next = new ArrayList<>();
+            next.add(tick);
+            nextBucket = bucket;
+            return List.of(point(chosen));
+        }
+
+        @Override
+        List<ChartPoint> finish() {
+            List<ChartPoint> points = new ArrayList<>(3);
+            List<MarketData> tail = next.isEmpty() ? current : next;
+            if (tail.isEmpty()) {
+                return points;
+            }
+            // The last tick is always kept and anchors the final bucket
+            MarketData last = tail.remove(tail.size() - 1);
+            double lastX = millis(last.getTimestamp());
+            double lastY = last.getPrice().doubleValue();
+            if (!next.isEmpty()) {
+                selected = largestTriangle(current, averageX(next), averageY(next));
+                points.add(point(selected));
+                points.add(point(largestTriangle(next, lastX, lastY)));
+            } else if (!current.isEmpty()) {
+                points.add(point(largestTriangle(current, lastX, lastY)));
+            }
+            points.add(point(last));
+            return points;
+        }
+
+        private MarketData largestTriangle(List<MarketData> bucket, double nextX, double nextY) {
+            double ax = millis(selected.getTimestamp());
+            double ay = selected.getPrice().doubleValue();
+            MarketData best = bucket.get(0);
+            double bestArea = -1;
+            for (MarketData tick : bucket) {
+                double area = Math.abs((ax - nextX) * (tick.getPrice().doubleValue() - ay)
+                        - (ax - millis(tick.getTimestamp())) * (nextY - ay));
+                if (area > bestArea) {
+                    bestArea = area;
+                    best = tick;
+                }
+            }
+            return best;
+        }
+
+        private static double averageX(List<MarketData> bucket) {
+            double sum = 0;
+            for (MarketData tick : bucket) {
+                sum += millis(tick.getTimestamp());
+            }
+            return sum / bucket.size();
+        }
+
+        private static double averageY(List<MarketData> bucket) {
+            double sum = 0;
+            for (MarketData tick : bucket) {
+                sum += tick.getPrice().doubleValue();
+            }
+            return sum / bucket.size();
+        }
+    }
+
+    private static class MinMaxSampler extends Sampler {
+
+        private MarketData min;
+        private MarketData max;
+        private int currentBucket = -1;
+
+        MinMaxSampler(long start, long span, int buckets) {
+            super(start, span, buckets);
+        }
+
+        @Override
+        List<ChartPoint> add(MarketData tick) {
+            int bucket = bucket(tick);
+            List<ChartPoint> points = List.of();
+            if (bucket != currentBucket) {
+                points = finish();
+                currentBucket = bucket;
+            }
+            if (min == null || tick.getPrice().compareTo(min.getPrice()) < 0) {
+                min = tick;
+            }
+            if (max == null || tick.getPrice().compareTo(max.getPrice()) > 0) {
+                max = tick;
+            }
+            return points;
+        }
+
+        @Override
+        List<ChartPoint> finish() {
+            if (min == null) {
+                return List.of();
+            }
+            List<ChartPoint> points;
+            if (min == max) {
+                points = List.of(point(min));
+            } else if (min.getTimestamp().isAfter(max.getTimestamp())) {
+                points = List.of(point(max), point(min));
+            } else {
+                points = List.of(point(min), point(max));
+            }
+            min = null;
+            max = null;
+            return points;
+        }
+    }
+}
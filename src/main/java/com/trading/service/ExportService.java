@@ -0,0 +1,90 @@
+package com.trading.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.config.DataSourceRouting;
+import com.trading.model.Order;
+import com.trading.model.Trade;
+import com.trading.repository.OrderRepository;
+import com.trading.repository.TradeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Streams trade and order history as CSV or NDJSON lines. Rows are pulled
+ * from the database in small batches as the client consumes them, so an
+ * export never holds more than one batch in memory.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    private static final int FETCH_SIZE = 256;
+
+    private static final String TRADE_HEADER = "id,buy_order_id,sell_order_id,stock_id,quantity,price,executed_at\n";
+    private static final String ORDER_HEADER = "id,account_id,stock_id,order_type,side,quantity,filled_quantity,"
+            + "price,status,time_in_force,expires_at,created_at,updated_at\n";
+
+    private final TradeRepository tradeRepository;
+    private final OrderRepository orderRepository;
+    private final ObjectMapper objectMapper;
+
+    public Flux<String> exportTrades(LocalDateTime from, LocalDateTime to, String format) {
+        log.debug("Exporting trades from {} to {} as {}", from, to, format);
+
+        if (from.isAfter(to)) {
+            return Flux.error(new IllegalArgumentException("Export range start must not be after its end"));
+        }
+        Flux<Trade> trades = DataSourceRouting.readOnly(tradeRepository.findByExecutedAtBetween(from, to));
+        return export(trades, format, TRADE_HEADER,
+                trade -> csv(trade.getId(), trade.getBuyOrderId(), trade.getSellOrderId(), trade.getStockId(),
+                        trade.getQuantity(), trade.getPrice(), trade.getExecutedAt()));
+    }
+
+    public Flux<String> exportOrders(LocalDateTime from, LocalDateTime to, String format) {
+        log.debug("Exporting orders from {} to {} as {}", from, to, format);
+
+        if (from.isAfter(to)) {
+            return Flux.error(new IllegalArgumentException("Export range start must not be after its end"));
+        }
+        Flux<Order> orders = DataSourceRouting.readOnly(orderRepository.findByCreatedAtBetween(from, to));
+        return export(orders, format, ORDER_HEADER,
+                order -> csv(order.getId(), order.getAccountId(), order.getStockId(), order.getOrderType(),
+                        order.getSide(), order.getQuantity(), order.getFilledQuantity(), order.getPrice(),
+                        order.getStatus(), order.getTimeInForce(), order.getExpiresAt(), order.getCreatedAt(),
+                        order.getUpdatedAt()));
+    }
+
+    private <T> Flux<String> export(Flux<T> rows, String format, String csvHeader, Function<T, String> csvRow) {
+        Flux<T> paced = rows.limitRate(FETCH_SIZE);
+        return switch (format) {
+            case "csv" -> Flux.just(csvHeader).concatWith(paced.map(csvRow));
+            case "ndjson" -> paced.handle((row, sink) -> {
+                try {
+                    sink.next(objectMapper.writeValueAsString(row) + "\n");
+                } catch (JsonProcessingException ex) {
+                    sink.error(ex);
+                }
+            });
+            default -> Flux.error(new IllegalArgumentException("Unsupported export format: " + format));
+        };
+    }
+
+    private static String csv(Object... values) {
+        StringBuilder line = new StringBuilder(128);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            line.append(Objects.toString(values[i], ""));
+        }
+        return line.append('\n').toString();
+    }
+}
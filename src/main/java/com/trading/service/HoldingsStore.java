@@ -0,0 +1,365 @@
+package com.trading.service;
+
+import com.trading.dto.PendingHoldingTrade;
+import com.trading.model.PortfolioHolding;
+import com.trading.repository.PortfolioHoldingBulkRepository;
+import com.trading.repository.PortfolioHoldingBulkRepository.HoldingRow;
+import com.trading.repository.PortfolioHoldingRepository;
+import com.trading.repository.TradeRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * Write-behind store of holdings, authoritative for position math. A
+ * position is read from portfolio_holdings the first time it is touched and
+ * kept in a {@link HoldingsTable} afterwards, so fills no longer read and
+ * write the row each time. Changed positions are written back every flush
+ * interval with one MERGE or DELETE per position however often it changed.
+ * <p>
+ * Each side of a trade is marked applied on the trade in the same
+ * transaction that writes its position. Changes made since the last flush,
+ * up to one flush interval of fills, are lost from portfolio_holdings if the
+ * process dies; on startup, before the web server takes requests, the sides
+ * of trades not marked applied are replayed, which rebuilds them.
+ * <p>
+ * Reads of an account's holdings flush that account only. They wait for a
+ * write still in flight with the account's positions, so an older value
+ * never overwrites a newer one, but not for flushes of other accounts.
+ */
+@Slf4j
+@Service
+public class HoldingsStore implements SmartLifecycle {
+
+    private final PortfolioHoldingRepository portfolioHoldingRepository;
+    private final PortfolioHoldingBulkRepository portfolioHoldingBulkRepository;
+    private final TradeRepository tradeRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final Duration flushInterval;
+    private final HoldingsTable table;
+    // Guarded by table, like the two below
+    private final List<TradeSide> pendingSides = new ArrayList<>();
+    // Completion of the write in flight with an account's positions
+    private final Map<Long, Mono<Void>> writesInFlight = new HashMap<>();
+    private Disposable flushTimer;
+    private volatile boolean running;
+
+    public HoldingsStore(PortfolioHoldingRepository portfolioHoldingRepository,
+            PortfolioHoldingBulkRepository portfolioHoldingBulkRepository,
+            TradeRepository tradeRepository,
+            TransactionalOperator transactionalOperator,
+            MeterRegistry meterRegistry,
+            @Value("${trading.holdings.flush-interval:1s}") Duration flushInterval,
+            @Value("${trading.holdings.initial-capacity:1024}") int initialCapacity) {
+        this.portfolioHoldingRepository = portfolioHoldingRepository;
+        this.portfolioHoldingBulkRepository = portfolioHoldingBulkRepository;
+        this.tradeRepository = tradeRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.flushInterval = flushInterval;
+        this.table = new HoldingsTable(initialCapacity);
+
+        Gauge.builder("trading.holdings.positions", this, store -> store.stat(HoldingsTable::size))
+                .description("Positions held in memory")
+                .register(meterRegistry);
+        Gauge.builder("trading.holdings.dirty", this, store -> store.stat(HoldingsTable::dirtyCount))
+                .description("Positions changed since the last flush")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Replays trades not yet applied before the web server and the
+     * simulator start, so no trade can be applied both by a request and by
+     * the replay, then starts the flush timer
+     */
+    @Override
+    public void start() {
+        try {
+            Long replayed = replayPendingTrades().block();
+            log.info("Replayed holdings of {} trades not yet applied", replayed);
+        } catch (RuntimeException error) {
+            log.error("Failed to replay trades into holdings: {}", error.getMessage());
+        }
+        flushTimer = Flux.interval(flushInterval, flushInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> flush(null))
+                .subscribe();
+        running = true;
+        log.info("Writing holdings back every {}", flushInterval);
+    }
+
+    /**
+     * Runs after the web server has stopped taking requests
+     */
+    @Override
+    public void stop() {
+        if (flushTimer != null) {
+            flushTimer.dispose();
+        }
+        flush(null).block(Duration.ofSeconds(10));
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Lower than the web server's phase, so this starts first and stops last
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    /**
+     * @param tradeId trade the fill belongs to, marked applied on the buy
+     *                side once the position is stored; null when there is none
+     */
+    public Mono<PortfolioHolding> buy(Long tradeId, Long accountId, Long stockId, int quantity, BigDecimal price) {
+        return load(accountId, stockId).then(Mono.fromCallable(() -> {
+            synchronized (table) {
+                int slot = table.find(accountId, stockId);
+                int held = table.quantity(slot);
+                int newQuantity = held + quantity;
+                BigDecimal newAveragePrice;
+                if (held == 0) {
+                    newAveragePrice = price.setScale(2, RoundingMode.HALF_UP);
+                } else {
+                    BigDecimal totalCost = cents(table.averagePriceCents(slot))
+                            .multiply(BigDecimal.valueOf(held))
+                            .add(price.multiply(BigDecimal.valueOf(quantity)));
+                    newAveragePrice = totalCost.divide(BigDecimal.valueOf(newQuantity), 2, RoundingMode.HALF_UP);
+                }
+                table.update(slot, newQuantity, newAveragePrice.unscaledValue().longValueExact());
+                recordSide(tradeId, accountId, true);
+                return holding(slot, accountId, stockId);
+            }
+        }));
+    }
+
+    /**
+     * @param tradeId trade the fill belongs to, marked applied on the sell
+     *                side once the position is stored; null when there is none
+     */
+    public Mono<PortfolioHolding> sell(Long tradeId, Long accountId, Long stockId, int quantity) {
+        return load(accountId, stockId).then(Mono.fromCallable(() -> {
+            synchronized (table) {
+                int slot = table.find(accountId, stockId);
+                int held = table.quantity(slot);
+                if (held == 0) {
+                    throw new IllegalStateException("No holdings found to sell");
+                }
+                if (held < quantity) {
+                    throw new IllegalStateException("Insufficient holdings to sell");
+                }
+                table.update(slot, held - quantity, table.averagePriceCents(slot));
+                recordSide(tradeId, accountId, false);
+                return holding(slot, accountId, stockId);
+            }
+        }));
+    }
+
+    /**
+     * Write back changed positions of the account, or of every account when
+     * accountId is null. Completes once they and any earlier write of the
+     * same accounts are stored.
+     */
+    public Mono<Void> flush(Long accountId) {
+        return Mono.defer(() -> {
+            List<HoldingsTable.Position> positions;
+            List<TradeSide> sides;
+            Mono<Void> previous;
+            Sinks.Empty<Void> done = Sinks.empty();
+            Mono<Void> completion = done.asMono();
+            Set<Long> accounts = new LinkedHashSet<>();
+            synchronized (table) {
+                positions = table.drainDirty(accountId);
+                sides = drainSides(accountId);
+                positions.forEach(position -> accounts.add(position.accountId()));
+                sides.forEach(side -> accounts.add(side.accountId()));
+                if (accounts.isEmpty()) {
+                    return accountId != null
+                            ? writesInFlight.getOrDefault(accountId, Mono.empty())
+                            : Mono.when(new ArrayList<>(writesInFlight.values()));
+                }
+                List<Mono<Void>> earlier = new ArrayList<>();
+                for (Long account : accounts) {
+                    Mono<Void> inFlight = writesInFlight.put(account, completion);
+                    if (inFlight != null) {
+                        earlier.add(inFlight);
+                    }
+                }
+                previous = Mono.when(earlier);
+            }
+
+            // Runs to the end even if the caller cancels, the drained changes are only in this write
+            previous.then(Mono.defer(() -> write(positions, sides)))
+                    .doFinally(signal -> {
+                        synchronized (table) {
+                            accounts.forEach(account -> writesInFlight.remove(account, completion));
+                        }
+                        done.tryEmitEmpty();
+                    })
+                    .subscribe();
+            return completion;
+        });
+    }
+
+    /**
+     * Read the position into the table unless it is already there; a
+     * position without a row is recorded as empty
+     */
+    private Mono<Void> load(Long accountId, Long stockId) {
+        return Mono.defer(() -> {
+            synchronized (table) {
+                if (table.find(accountId, stockId) >= 0) {
+                    return Mono.empty();
+                }
+            }
+            return portfolioHoldingRepository.findByAccountIdAndStockId(accountId, stockId)
+                    .doOnNext(holding -> {
+                        synchronized (table) {
+                            table.putIfAbsent(accountId, stockId, holding.getQuantity(),
+                                    holding.getAveragePrice().setScale(2, RoundingMode.HALF_UP)
+                                            .unscaledValue().longValueExact(),
+                                    holding.getId());
+                        }
+                    })
+                    .switchIfEmpty(Mono.fromRunnable(() -> {
+                        synchronized (table) {
+                            table.putIfAbsent(accountId, stockId, 0, 0, 0);
+                        }
+                    }))
+                    .then();
+        });
+    }
+
+    /**
+     * Apply the sides of trades not marked applied, oldest first, then store
+     * them. A side that cannot be applied is logged and marked applied, so it
+     * is not retried on every start.
+     */
+    private Mono<Long> replayPendingTrades() {
+        return tradeRepository.findPendingHoldingTrades()
+                .concatMap(trade -> replaySide(trade, true).then(replaySide(trade, false)).thenReturn(trade))
+                .count()
+                .flatMap(replayed -> flush(null).thenReturn(replayed));
+    }
+
+    private Mono<Void> replaySide(PendingHoldingTrade trade, boolean buySide) {
+        if (buySide ? trade.getBuyHoldingApplied() : trade.getSellHoldingApplied()) {
+            return Mono.empty();
+        }
+        Long accountId = buySide ? trade.getBuyAccountId() : trade.getSellAccountId();
+        Mono<PortfolioHolding> applied = buySide
+                ? buy(trade.getTradeId(), accountId, trade.getStockId(), trade.getQuantity(), trade.getPrice())
+                : sell(trade.getTradeId(), accountId, trade.getStockId(), trade.getQuantity());
+        return applied
+                .onErrorResume(IllegalStateException.class, error -> {
+                    log.warn("Skipping {} side of trade {} for account {}: {}", buySide ? "buy" : "sell",
+                            trade.getTradeId(), accountId, error.getMessage());
+                    synchronized (table) {
+                        recordSide(trade.getTradeId(), accountId, buySide);
+                    }
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<Void> write(List<HoldingsTable.Position> positions, List<TradeSide> sides) {
+        List<HoldingRow> open = new ArrayList<>();
+        List<HoldingRow> closed = new ArrayList<>();
+        for (HoldingsTable.Position position : positions) {
+            HoldingRow row = new HoldingRow(position.accountId(), position.stockId(), position.quantity(),
+                    cents(position.averagePriceCents()));
+            (position.quantity() > 0 ? open : closed).add(row);
+        }
+        List<Long> buyTrades = new ArrayList<>();
+        List<Long> sellTrades = new ArrayList<>();
+        for (TradeSide side : sides) {
+            (side.buy() ? buyTrades : sellTrades).add(side.tradeId());
+        }
+
+        return portfolioHoldingBulkRepository.mergeHoldings(open, LocalDateTime.now())
+                .then(portfolioHoldingBulkRepository.deleteHoldings(closed))
+                .then(buyTrades.isEmpty() ? Mono.empty() : tradeRepository.markBuyHoldingsApplied(buyTrades))
+                .then(sellTrades.isEmpty() ? Mono.empty() : tradeRepository.markSellHoldingsApplied(sellTrades))
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(ignored -> log.debug("Flushed {} changed and {} closed positions",
+                        open.size(), closed.size()))
+                .onErrorResume(error -> {
+                    log.error("Failed to flush {} positions: {}", positions.size(), error.getMessage());
+                    synchronized (table) {
+                        table.markDirty(positions);
+                        pendingSides.addAll(sides);
+                    }
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * Remember that the trade's side is in memory but not stored yet.
+     * Called holding the table lock.
+     */
+    private void recordSide(Long tradeId, Long accountId, boolean buy) {
+        if (tradeId != null) {
+            pendingSides.add(new TradeSide(tradeId, accountId, buy));
+        }
+    }
+
+    /**
+     * Take the pending sides of one account or of all accounts. Called
+     * holding the table lock.
+     */
+    private List<TradeSide> drainSides(Long accountId) {
+        if (accountId == null) {
+            List<TradeSide> drained = new ArrayList<>(pendingSides);
+            pendingSides.clear();
+            return drained;
+        }
+        List<TradeSide> drained = new ArrayList<>();
+        pendingSides.removeIf(side -> side.accountId().equals(accountId) && drained.add(side));
+        return drained;
+    }
+
+    private PortfolioHolding holding(int slot, Long accountId, Long stockId) {
+        long rowId = table.rowId(slot);
+        return new PortfolioHolding(rowId != 0 ? rowId : null, accountId, stockId, table.quantity(slot),
+                cents(table.averagePriceCents(slot)), null, LocalDateTime.now());
+    }
+
+    private int stat(ToIntFunction<HoldingsTable> stat) {
+        synchronized (table) {
+            return stat.applyAsInt(table);
+        }
+    }
+
+    private static BigDecimal cents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private record TradeSide(Long tradeId, Long accountId, boolean buy) {
+    }
+}
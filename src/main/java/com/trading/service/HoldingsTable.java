@@ -0,0 +1,199 @@
+package com.trading.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Open-addressing table of positions keyed by (account, stock) with the
+ * fields held in parallel primitive arrays, so a fill updates a position
+ * without boxing or allocating. Average prices are kept in cents. Closed
+ * positions stay in the table with quantity zero, which also records that
+ * the position is known to be empty. Changed positions are tracked in a
+ * dirty list that is drained by the flush. Not thread-safe.
+ */
+final class HoldingsTable {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] accountIds;
+    private long[] stockIds;
+    private int[] quantities;
+    private long[] averageCents;
+    private long[] rowIds;
+    private boolean[] used;
+    private boolean[] dirty;
+    private int[] dirtySlots;
+    private int dirtyCount;
+    private int size;
+
+    HoldingsTable(int expectedPositions) {
+        allocate(capacityFor(expectedPositions));
+    }
+
+    /**
+     * Slot of the position, or -1 if it is not in the table
+     */
+    int find(long accountId, long stockId) {
+        int mask = accountIds.length - 1;
+        for (int slot = hash(accountId, stockId) & mask; used[slot]; slot = (slot + 1) & mask) {
+            if (accountIds[slot] == accountId && stockIds[slot] == stockId) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Add a position read from the table, unless it is already present.
+     * Returns the position's slot.
+     */
+    int putIfAbsent(long accountId, long stockId, int quantity, long averagePriceCents, long rowId) {
+        int existing = find(accountId, stockId);
+        if (existing >= 0) {
+            return existing;
+        }
+        if ((size + 1) * 4 > accountIds.length * 3) {
+            allocateAndRehash(accountIds.length * 2);
+        }
+        int slot = insert(accountId, stockId, quantity, averagePriceCents, rowId);
+        size++;
+        return slot;
+    }
+
+    void update(int slot, int quantity, long averagePriceCents) {
+        quantities[slot] = quantity;
+        averageCents[slot] = averagePriceCents;
+        if (quantity == 0) {
+            // The row is deleted on flush; a reopened position gets a new one
+            rowIds[slot] = 0;
+        }
+        if (!dirty[slot]) {
+            dirty[slot] = true;
+            dirtySlots[dirtyCount++] = slot;
+        }
+    }
+
+    int quantity(int slot) {
+        return quantities[slot];
+    }
+
+    long averagePriceCents(int slot) {
+        return averageCents[slot];
+    }
+
+    long rowId(int slot) {
+        return rowIds[slot];
+    }
+
+    /**
+     * Take the changed positions, of one account or of all accounts when
+     * accountId is null, and mark them clean
+     */
+    List<Position> drainDirty(Long accountId) {
+        List<Position> drained = new ArrayList<>();
+        int kept = 0;
+        for (int i = 0; i < dirtyCount; i++) {
+            int slot = dirtySlots[i];
+            if (accountId == null || accountIds[slot] == accountId) {
+                dirty[slot] = false;
+                drained.add(position(slot));
+            } else {
+                dirtySlots[kept++] = slot;
+            }
+        }
+        dirtyCount = kept;
+        return drained;
+    }
+
+    /**
+     * Mark positions dirty again after a failed flush
+     */
+    void markDirty(List<Position> positions) {
+        for (Position position : positions) {
+            int slot = find(position.accountId(), position.stockId());
+            if (slot >= 0) {
+                update(slot, quantities[slot], averageCents[slot]);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    int dirtyCount() {
+        return dirtyCount;
+    }
+
+    private Position position(int slot) {
+        return new Position(accountIds[slot], stockIds[slot], quantities[slot], averageCents[slot]);
+    }
+
+    private int insert(long accountId, long stockId, int quantity, long averagePriceCents, long rowId) {
+        int mask = accountIds.length - 1;
+        int slot = hash(accountId, stockId) & mask;
+        while (used[slot]) {
+            slot = (slot + 1) & mask;
+        }
+        used[slot] = true;
+        accountIds[slot] = accountId;
+        stockIds[slot] = stockId;
+        quantities[slot] = quantity;
+        averageCents[slot] = averagePriceCents;
+        rowIds[slot] = rowId;
+        return slot;
+    }
+
+    private void allocateAndRehash(int capacity) {
+        long[] oldAccountIds = accountIds;
+        long[] oldStockIds = stockIds;
+        int[] oldQuantities = quantities;
+        long[] oldAverageCents = averageCents;
+        long[] oldRowIds = rowIds;
+        boolean[] oldUsed = used;
+        boolean[] oldDirty = dirty;
+
+        allocate(capacity);
+        for (int slot = 0; slot < oldUsed.length; slot++) {
+            if (oldUsed[slot]) {
+                int moved = insert(oldAccountIds[slot], oldStockIds[slot], oldQuantities[slot],
+                        oldAverageCents[slot], oldRowIds[slot]);
+                if (oldDirty[slot]) {
+                    dirty[moved] = true;
+                    dirtySlots[dirtyCount++] = moved;
+                }
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        accountIds = new long[capacity];
+        stockIds = new long[capacity];
+        quantities = new int[capacity];
+        averageCents = new long[capacity];
+        rowIds = new long[capacity];
+        used = new boolean[capacity];
+        dirty = new boolean[capacity];
+        dirtySlots = new int[capacity];
+        dirtyCount = 0;
+    }
+
+    private static int capacityFor(int expectedPositions) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3 < expectedPositions * 4) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int hash(long accountId, long stockId) {
+        long h = accountId * 0x9E3779B97F4A7C15L + stockId;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    record Position(long accountId, long stockId, int quantity, long averagePriceCents) {
+    }
+}
@@ -0,0 +1,105 @@
+package com.trading.service;
+
+import com.trading.dto.IndicatorSnapshot;
+import com.trading.model.MarketData;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains SMA, EMA, RSI and Bollinger bands per stock from the shared
+ * price ticks, so clients read current values instead of each downloading
+ * history to recompute them. Periods count ticks, and values start from
+ * the ticks seen since startup.
+ */
+@Slf4j
+@Service
+public class IndicatorService {
+
+    private final MarketDataService marketDataService;
+    private final int[] smaPeriods;
+    private final int[] emaPeriods;
+    private final int rsiPeriod;
+    private final int bollingerPeriod;
+    private final double bollingerWidth;
+    private final Duration streamInterval;
+    private final Map<Long, IndicatorState> indicators = new ConcurrentHashMap<>();
+    private final Sinks.Many<Long> updates = Sinks.many().multicast().directBestEffort();
+    private Disposable ticks;
+
+    public IndicatorService(MarketDataService marketDataService,
+            @Value("${trading.indicators.sma-periods:20,50}") int[] smaPeriods,
+            @Value("${trading.indicators.ema-periods:12,26}") int[] emaPeriods,
+            @Value("${trading.indicators.rsi-period:14}") int rsiPeriod,
+            @Value("${trading.indicators.bollinger-period:20}") int bollingerPeriod,
+            @Value("${trading.indicators.bollinger-width:2.0}") double bollingerWidth,
+            @Value("${trading.indicators.stream-interval:1s}") Duration streamInterval) {
+        this.marketDataService = marketDataService;
+        this.smaPeriods = smaPeriods;
+        this.emaPeriods = emaPeriods;
+        this.rsiPeriod = rsiPeriod;
+        this.bollingerPeriod = bollingerPeriod;
+        this.bollingerWidth = bollingerWidth;
+        this.streamInterval = streamInterval;
+        // Fail at startup rather than on the first tick
+        newState(0L);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        ticks = marketDataService.ticks().subscribe(this::update);
+        log.info("Tracking SMA {}, EMA {}, RSI {} and Bollinger {} x {} on price ticks",
+                Arrays.toString(smaPeriods), Arrays.toString(emaPeriods), rsiPeriod, bollingerPeriod, bollingerWidth);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticks != null) {
+            ticks.dispose();
+        }
+    }
+
+    public Mono<IndicatorSnapshot> getIndicators(Long stockId) {
+        return Mono.justOrEmpty(indicators.get(stockId))
+                .map(IndicatorState::snapshot);
+    }
+
+    public Flux<IndicatorSnapshot> getAllIndicators() {
+        return Flux.fromIterable(indicators.values())
+                .map(IndicatorState::snapshot);
+    }
+
+    /**
+     * Current values followed by at most one update per stream interval
+     * while the stock keeps ticking
+     */
+    public Flux<IndicatorSnapshot> streamIndicators(Long stockId) {
+        return getIndicators(stockId)
+                .concatWith(updates.asFlux()
+                        .filter(stockId::equals)
+                        .sample(streamInterval)
+                        .flatMap(id -> getIndicators(stockId)));
+    }
+
+    private void update(MarketData tick) {
+        indicators.computeIfAbsent(tick.getStockId(), this::newState)
+                .update(tick.getPrice(), tick.getTimestamp());
+        updates.tryEmitNext(tick.getStockId());
+    }
+
+    private IndicatorState newState(Long stockId) {
+        return new IndicatorState(stockId, smaPeriods, emaPeriods, rsiPeriod, bollingerPeriod, bollingerWidth);
+    }
+}
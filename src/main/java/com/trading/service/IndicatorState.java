@@ -0,0 +1,234 @@
+package com.trading.service;
+
+import com.trading.dto.IndicatorSnapshot;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Technical indicators for one stock, updated in O(1) per tick. Simple
+ * moving averages and Bollinger bands keep a ring buffer of the last prices
+ * with a running sum (and sum of squares); EMA and Wilder's RSI keep only
+ * their smoothed state.
+ */
+class IndicatorState {
+
+    private static final int SCALE = 4;
+
+    private final Long stockId;
+    private final RollingWindow[] smas;
+    private final Ema[] emas;
+    private final Rsi rsi;
+    private final RollingWindow bollinger;
+    private final double bollingerWidth;
+    private double lastPrice;
+    private long ticks;
+    private LocalDateTime asOf;
+
+    IndicatorState(Long stockId, int[] smaPeriods, int[] emaPeriods, int rsiPeriod, int bollingerPeriod,
+            double bollingerWidth) {
+        this.stockId = stockId;
+        this.smas = new RollingWindow[smaPeriods.length];
+        for (int i = 0; i < smaPeriods.length; i++) {
+            smas[i] = new RollingWindow(smaPeriods[i]);
+        }
+        this.emas = new Ema[emaPeriods.length];
+        for (int i = 0; i < emaPeriods.length; i++) {
+            emas[i] = new Ema(emaPeriods[i]);
+        }
+        this.rsi = new Rsi(rsiPeriod);
+        this.bollinger = new RollingWindow(bollingerPeriod);
+        this.bollingerWidth = bollingerWidth;
+    }
+
+    synchronized void update(BigDecimal price, LocalDateTime timestamp) {
+        double value = price.doubleValue();
+        for (RollingWindow sma : smas) {
+            sma.add(value);
+        }
+        for (Ema ema : emas) {
+            ema.add(value);
+        }
+        rsi.add(value);
+        bollinger.add(value);
+        lastPrice = value;
+        ticks++;
+        asOf = timestamp;
+    }
+
+    synchronized IndicatorSnapshot snapshot() {
+        Map<Integer, BigDecimal> smaValues = new LinkedHashMap<>();
+        for (RollingWindow sma : smas) {
+            smaValues.put(sma.period(), sma.isFull() ? decimal(sma.mean()) : null);
+        }
+        Map<Integer, BigDecimal> emaValues = new LinkedHashMap<>();
+        for (Ema ema : emas) {
+            emaValues.put(ema.period, ema.isReady() ? decimal(ema.value) : null);
+        }
+        BigDecimal upper = null;
+        BigDecimal middle = null;
+        BigDecimal lower = null;
+        if (bollinger.isFull()) {
+            double mean = bollinger.mean();
+            double band = bollingerWidth * bollinger.standardDeviation();
+            upper = decimal(mean + band);
+            middle = decimal(mean);
+            lower = decimal(mean - band);
+        }
+        return new IndicatorSnapshot(stockId, ticks > 0 ? decimal(lastPrice) : null, smaValues, emaValues,
+                rsi.isReady() ? decimal(rsi.value()) : null, upper, middle, lower, ticks, asOf);
+    }
+
+    private static BigDecimal decimal(double value) {
+        return BigDecimal.valueOf(value).setScale(SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Last {@code period} values with running sum and sum of squares. The
+     * sums are recomputed from the buffer once per lap so floating point
+     * error cannot accumulate, which keeps the amortized cost O(1).
+     */
+    private static class RollingWindow {
+
+        private final double[] values;
+        private int next;
+        private int count;
+        private double sum;
+        private double sumOfSquares;
+
+        RollingWindow(int period) {
+            if (period < 1) {
+                throw new IllegalArgumentException("Indicator period must be positive");
+            }
+            this.values = new double[period];
+        }
+
+        void add(double value) {
+            if (count == values.length) {
+                double evicted = values[next];
+                sum -= evicted;
+                sumOfSquares -= evicted * evicted;
+            } else {
+                count++;
+            }
+            values[next] = value;
+            sum += value;
+            sumOfSquares += value * value;
+            next = (next + 1) % values.length;
+            if (next == 0) {
+                resum();
+            }
+        }
+
+        int period() {
+            return values.length;
+        }
+
+        boolean isFull() {
+            return count == values.length;
+        }
+
+        double mean() {
+            return sum / count;
+        }
+
+        double standardDeviation() {
+            double mean = mean();
+            return Math.sqrt(Math.max(0, sumOfSquares / count - mean * mean));
+        }
+
+        private void resum() {
+            sum = 0;
+            sumOfSquares = 0;
+            for (int i = 0; i < count; i++) {
+                sum += values[i];
+                sumOfSquares += values[i] * values[i];
+            }
+        }
+    }
+
+    /**
+     * Exponential moving average seeded with the simple average of its
+     * first {@code period} values
+     */
+    private static class Ema {
+
+        private final int period;
+        private final double alpha;
+        private int count;
+        private double value;
+
+        Ema(int period) {
+            if (period < 1) {
+                throw new IllegalArgumentException("Indicator period must be positive");
+            }
+            this.period = period;
+            this.alpha = 2.0 / (period + 1);
+        }
+
+        void add(double price) {
+            if (count < period) {
+                value += (price - value) / ++count;
+            } else {
+                value += alpha * (price - value);
+            }
+        }
+
+        boolean isReady() {
+            return count >= period;
+        }
+    }
+
+    /**
+     * Wilder's relative strength index: average gain and loss seeded over
+     * the first {@code period} changes, then smoothed by 1/period
+     */
+    private static class Rsi {
+
+        private final int period;
+        private int changes;
+        private double previous = Double.NaN;
+        private double averageGain;
+        private double averageLoss;
+
+        Rsi(int period) {
+            if (period < 1) {
+                throw new IllegalArgumentException("Indicator period must be positive");
+            }
+            this.period = period;
+        }
+
+        void add(double price) {
+            if (Double.isNaN(previous)) {
+                previous = price;
+                return;
+            }
+            double change = price - previous;
+            previous = price;
+            double gain = Math.max(change, 0);
+            double loss = Math.max(-change, 0);
+            if (changes < period) {
+                changes++;
+                averageGain += (gain - averageGain) / changes;
+                averageLoss += (loss - averageLoss) / changes;
+            } else {
+                averageGain = (averageGain * (period - 1) + gain) / period;
+                averageLoss = (averageLoss * (period - 1) + loss) / period;
+            }
+        }
+
+        boolean isReady() {
+            return changes >= period;
+        }
+
+        double value() {
+            if (averageLoss == 0) {
+                return averageGain == 0 ? 50 : 100;
+            }
+            return 100 - 100 / (1 + averageGain / averageLoss);
+        }
+    }
+}
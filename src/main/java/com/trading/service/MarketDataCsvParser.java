@@ -0,0 +1,250 @@
+package com.trading.service;
+
+import com.trading.model.MarketData;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Incremental parser for {@code symbol,timestamp,price,volume} lines, fed
+ * with chunks of bytes as they arrive. Fields are parsed straight from the
+ * bytes without building line or field strings; a line split across chunks
+ * is carried over. The first column may also be a numeric stock id, and the
+ * timestamp may be ISO-8601 local date-time (with {@code T} or a space) or
+ * epoch milliseconds. A header line and lines that do not parse or name an
+ * unknown stock are counted as rejected.
+ * <p>
+ * Not thread-safe; feed one parser from one sequential stream.
+ */
+public class MarketDataCsvParser {
+
+    private static final int PRICE_SCALE = 2;
+
+    private final Map<String, Long> stockIdsBySymbol;
+    private final Set<Long> stockIds;
+    private final ZoneId zone;
+    private byte[] carry = new byte[256];
+    private int carryLength;
+    private long lines;
+    private long rejected;
+
+    // Input is usually grouped by symbol, so most lines reuse the previous lookup
+    private byte[] lastSymbol = new byte[0];
+    private Long lastStockId;
+
+    public MarketDataCsvParser(Map<String, Long> stockIdsBySymbol, ZoneId zone) {
+        this.stockIdsBySymbol = stockIdsBySymbol;
+        this.stockIds = new HashSet<>(stockIdsBySymbol.values());
+        this.zone = zone;
+    }
+
+    /**
+     * Parse every complete line in the chunk
+     */
+    public List<MarketData> feed(ByteBuffer chunk) {
+        List<MarketData> rows = new ArrayList<>();
+        byte[] bytes;
+        int offset;
+        if (chunk.hasArray()) {
+            bytes = chunk.array();
+            offset = chunk.arrayOffset() + chunk.position();
+        } else {
+            bytes = new byte[chunk.remaining()];
+            chunk.duplicate().get(bytes);
+            offset = 0;
+        }
+        int end = offset + chunk.remaining();
+
+        int lineStart = offset;
+        for (int i = offset; i < end; i++) {
+            if (bytes[i] != '\n') {
+                continue;
+            }
+            if (carryLength > 0) {
+                append(bytes, lineStart, i);
+                parseLine(carry, 0, carryLength, rows);
+                carryLength = 0;
+            } else {
+                parseLine(bytes, lineStart, i, rows);
+            }
+            lineStart = i + 1;
+        }
+        append(bytes, lineStart, end);
+        return rows;
+    }
+
+    /**
+     * Parse a last line that has no trailing newline
+     */
+    public List<MarketData> finish() {
+        List<MarketData> rows = new ArrayList<>(1);
+        if (carryLength > 0) {
+            parseLine(carry, 0, carryLength, rows);
+            carryLength = 0;
+        }
+        return rows;
+    }
+
+    public long getLines() {
+        return lines;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    private void append(byte[] bytes, int from, int to) {
+        int length = to - from;
+        if (carryLength + length > carry.length) {
+            carry = Arrays.copyOf(carry, Math.max(carry.length * 2, carryLength + length));
+        }
+        System.arraycopy(bytes, from, carry, carryLength, length);
+        carryLength += length;
+    }
+
+    private void parseLine(byte[] line, int start, int end, List<MarketData> rows) {
+        if (end > start && line[end - 1] == '\r') {
+            end--;
+        }
+        if (end == start) {
+            return;
+        }
+        lines++;
+
+        int symbolEnd = indexOf(line, start, end);
+        int timestampEnd = indexOf(line, symbolEnd + 1, end);
+        int priceEnd = indexOf(line, timestampEnd + 1, end);
+        if (priceEnd >= end) {
+            rejected++;
+            return;
+        }
+        Long stockId = stockId(line, start, symbolEnd);
+        LocalDateTime timestamp = parseTimestamp(line, symbolEnd + 1, timestampEnd);
+        BigDecimal price = parsePrice(line, timestampEnd + 1, priceEnd);
+        long volume = parseLong(line, priceEnd + 1, end);
+        if (stockId == null || timestamp == null || price == null || volume < 0) {
+            rejected++;
+            return;
+        }
+        rows.add(new MarketData(null, stockId, price, volume, timestamp));
+    }
+
+    private Long stockId(byte[] line, int start, int end) {
+        if (Arrays.equals(line, start, end, lastSymbol, 0, lastSymbol.length)) {
+            return lastStockId;
+        }
+        long numeric = parseLong(line, start, end);
+        Long stockId = numeric > 0
+                ? Long.valueOf(numeric)
+                : stockIdsBySymbol.get(new String(line, start, end - start, StandardCharsets.US_ASCII).trim());
+        if (numeric > 0 && !stockIds.contains(stockId)) {
+            stockId = null;
+        }
+        lastSymbol = Arrays.copyOfRange(line, start, end);
+        lastStockId = stockId;
+        return stockId;
+    }
+
+    private LocalDateTime parseTimestamp(byte[] line, int start, int end) {
+        int length = end - start;
+        if (length < 19) {
+            long epochMillis = parseLong(line, start, end);
+            return epochMillis < 0 ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone);
+        }
+        // yyyy-MM-dd[T ]HH:mm:ss[.fraction]
+        if (line[start + 4] != '-' || line[start + 7] != '-' || (line[start + 10] != 'T' && line[start + 10] != ' ')
+                || line[start + 13] != ':' || line[start + 16] != ':') {
+            return null;
+        }
+        int year = digits(line, start, 4);
+        int month = digits(line, start + 5, 2);
+        int day = digits(line, start + 8, 2);
+        int hour = digits(line, start + 11, 2);
+        int minute = digits(line, start + 14, 2);
+        int second = digits(line, start + 17, 2);
+        int nanos = 0;
+        if (length > 19) {
+            int fractionDigits = length - 20;
+            if (line[start + 19] != '.' || fractionDigits < 1 || fractionDigits > 9) {
+                return null;
+            }
+            nanos = digits(line, start + 20, fractionDigits);
+            for (int i = fractionDigits; i < 9 && nanos > 0; i++) {
+                nanos *= 10;
+            }
+        }
+        if ((year | month | day | hour | minute | second | nanos) < 0) {
+            return null;
+        }
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second, nanos);
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+
+    private static BigDecimal parsePrice(byte[] line, int start, int end) {
+        long unscaled = 0;
+        int scale = -1;
+        for (int i = start; i < end; i++) {
+            byte b = line[i];
+            if (b == '.' && scale < 0) {
+                scale = 0;
+            } else if (b >= '0' && b <= '9' && unscaled < Long.MAX_VALUE / 10) {
+                unscaled = unscaled * 10 + (b - '0');
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else {
+                return null;
+            }
+        }
+        if (end == start || unscaled == 0) {
+            return null;
+        }
+        BigDecimal price = BigDecimal.valueOf(unscaled, Math.max(scale, 0));
+        return price.scale() > PRICE_SCALE ? price.setScale(PRICE_SCALE, RoundingMode.HALF_UP) : price;
+    }
+
+    /**
+     * @return the value, or -1 if the field is empty or not all digits
+     */
+    private static long parseLong(byte[] line, int start, int end) {
+        if (end == start || end - start > 18) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            byte b = line[i];
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    private static int digits(byte[] line, int start, int count) {
+        return (int) parseLong(line, start, start + count);
+    }
+
+    private static int indexOf(byte[] line, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (line[i] == ',') {
+                return i;
+            }
+        }
+        return end;
+    }
+}
@@ -0,0 +1,102 @@
+package com.trading.service;
+
+import com.trading.dto.IngestReport;
+import com.trading.model.MarketData;
+import com.trading.model.PriceBar;
+import com.trading.model.Stock;
+import com.trading.repository.MarketDataBulkRepository;
+import com.trading.repository.StockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads historical market data from CSV. The input is parsed as it streams
+ * in and written in large multi-row inserts, one batch at a time; reading
+ * stops while a batch is being written, so memory stays bounded by the batch
+ * size however large the file is. Optionally rolls the rows up into OHLCV
+ * bars on the way.
+ */
+@Slf4j
+@Service
+public class MarketDataIngestService {
+
+    private final StockRepository stockRepository;
+    private final MarketDataBulkRepository marketDataBulkRepository;
+    private final int batchSize;
+
+    public MarketDataIngestService(StockRepository stockRepository,
+            MarketDataBulkRepository marketDataBulkRepository,
+            @Value("${trading.ingest.batch-size:5000}") int batchSize) {
+        this.stockRepository = stockRepository;
+        this.marketDataBulkRepository = marketDataBulkRepository;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param rollupSeconds bar interval to roll rows up into, or null for no bars
+     */
+    public Mono<IngestReport> ingest(Flux<DataBuffer> csv, Integer rollupSeconds) {
+        OhlcvRollup rollup = rollupSeconds != null ? new OhlcvRollup(rollupSeconds) : null;
+        return stockRepository.findAll()
+                .collectMap(Stock::getSymbol, Stock::getId)
+                .flatMap(symbols -> {
+                    MarketDataCsvParser parser = new MarketDataCsvParser(symbols, ZoneId.systemDefault());
+                    AtomicLong bars = new AtomicLong();
+                    long start = System.nanoTime();
+
+                    return csv.concatMapIterable(buffer -> parse(parser, buffer))
+                            .concatWith(Flux.defer(() -> Flux.fromIterable(parser.finish())))
+                            .buffer(batchSize)
+                            .concatMap(batch -> marketDataBulkRepository.insertMarketData(batch)
+                                    .flatMap(inserted -> rollup == null
+                                            ? Mono.just(inserted)
+                                            : mergeBars(rollup.add(batch), bars).thenReturn(inserted)))
+                            .reduce(0L, Long::sum)
+                            .flatMap(inserted -> rollup == null
+                                    ? Mono.just(inserted)
+                                    : mergeBars(rollup.finish(), bars).thenReturn(inserted))
+                            .map(inserted -> report(parser, inserted, bars.get(), System.nanoTime() - start));
+                })
+                .doOnNext(report -> log.info("Ingested {} market data rows ({} rejected, {} bars) in {} ms, {} rows/s",
+                        report.getInserted(), report.getRejected(), report.getBars(),
+                        report.getElapsedMillis(), report.getRowsPerSecond()));
+    }
+
+    private static List<MarketData> parse(MarketDataCsvParser parser, DataBuffer buffer) {
+        try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+            List<MarketData> rows = new ArrayList<>();
+            while (chunks.hasNext()) {
+                ByteBuffer chunk = chunks.next();
+                rows.addAll(parser.feed(chunk));
+            }
+            return rows;
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    private Mono<Long> mergeBars(List<PriceBar> closed, AtomicLong bars) {
+        if (closed.isEmpty()) {
+            return Mono.just(0L);
+        }
+        bars.addAndGet(closed.size());
+        return marketDataBulkRepository.mergePriceBars(closed);
+    }
+
+    private static IngestReport report(MarketDataCsvParser parser, long inserted, long bars, long elapsedNanos) {
+        long elapsedMillis = Math.max(1, elapsedNanos / 1_000_000);
+        return new IngestReport(parser.getLines(), inserted, parser.getRejected(), bars, elapsedMillis,
+                inserted * 1000 / elapsedMillis);
+    }
+}
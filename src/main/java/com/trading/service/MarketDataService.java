@@ -1,27 +1,40 @@
 package com.trading.service;
 
+import com.trading.config.DataSourceRouting;
+import com.trading.dto.ChartPoint;
 import com.trading.model.MarketData;
+import com.trading.model.PriceBar;
 import com.trading.model.Stock;
 import com.trading.repository.MarketDataRepository;
+import com.trading.repository.PriceBarRepository;
 import com.trading.repository.StockRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.BufferOverflowStrategy;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
 import java.math.BigDecimal;
 import java.time.Duration;
-import java.util.Random;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class MarketDataService {
 
+    private static final int STREAM_BUFFER = 1024;
+
     private final StockRepository stockRepository;
     private final MarketDataRepository marketDataRepository;
-    private final Random random = new Random();
+    private final PriceBarRepository priceBarRepository;
+    private final StopLossTriggerService stopLossTriggerService;
+    private final MarketStatisticsService marketStatisticsService;
+    private final StockCatalogCache stockCatalogCache;
+    private final Sinks.Many<MarketData> ticks = Sinks.many().multicast().directBestEffort();
 
     public Flux<Stock> getAllStocks() {
         return stockRepository.findAll();
@@ -39,8 +52,24 @@ public class MarketDataService {
         return stockRepository.findBySector(sector);
     }
 
-    public Flux<MarketData> getMarketDataForStock(Long stockId) {
-        return marketDataRepository.findByStockId(stockId);
+    public Flux<MarketData> getMarketDataForStock(Long stockId, Long before, int limit) {
+        return DataSourceRouting.readOnly(
+                marketDataRepository.findPageByStockId(stockId, Paging.before(before), Paging.limit(limit)));
+    }
+
+    /**
+     * Price history over a time range reduced to about {@code points} chart
+     * points while the rows stream from the database
+     */
+    public Flux<ChartPoint> getChart(Long stockId, LocalDateTime from, LocalDateTime to, int points,
+            ChartDownsampling.Mode mode) {
+        return ChartDownsampling.downsample(
+                DataSourceRouting.readOnly(marketDataRepository.findRangeByStockId(stockId, from, to)),
+                from, to, points, mode);
+    }
+
+    public Flux<PriceBar> getPriceBars(Long stockId, int intervalSeconds, LocalDateTime from, LocalDateTime to) {
+        return DataSourceRouting.readOnly(priceBarRepository.findBars(stockId, intervalSeconds, from, to));
     }
 
     public Mono<MarketData> getLatestMarketData(Long stockId) {
@@ -48,47 +77,61 @@ public class MarketDataService {
     }
 
     /**
-     * Stream real-time price updates for a stock
-     * Simulates price changes every 2 seconds
+     * Stream real-time price updates for a stock from the shared tick
+     * pipeline. Slow subscribers skip to the latest price.
      */
     public Flux<Stock> streamPriceUpdates(Long stockId) {
         return stockRepository.findById(stockId)
-                .flatMapMany(stock -> Flux.interval(Duration.ofSeconds(2))
-                        .flatMap(tick -> {
-                            // Simulate price change (-2% to +2%)
-                            double changePercent = (random.nextDouble() * 4) - 2;
-                            BigDecimal priceChange = stock.getCurrentPrice()
-                                    .multiply(BigDecimal.valueOf(changePercent / 100));
-                            BigDecimal newPrice = stock.getCurrentPrice().add(priceChange);
-
-                            stock.setCurrentPrice(newPrice);
-
-                            // Save market data snapshot
-                            MarketData marketData = new MarketData(
-                                    stockId,
-                                    newPrice,
-                                    (long) (random.nextInt(10000000) + 1000000));
-
-                            return marketDataRepository.save(marketData)
-                                    .then(stockRepository.save(stock));
-                        }));
+                .flatMapMany(stock -> ticks.asFlux()
+                        .filter(tick -> stockId.equals(tick.getStockId()))
+                        .map(tick -> withPrice(stock, tick)))
+                .onBackpressureLatest();
     }
 
     /**
      * Stream all stock prices
      */
     public Flux<Stock> streamAllPrices() {
-        return Flux.interval(Duration.ofSeconds(3))
-                .flatMap(tick -> stockRepository.findAll()
-                        .flatMap(stock -> {
-                            // Simulate price change
-                            double changePercent = (random.nextDouble() * 4) - 2;
-                            BigDecimal priceChange = stock.getCurrentPrice()
-                                    .multiply(BigDecimal.valueOf(changePercent / 100));
-                            BigDecimal newPrice = stock.getCurrentPrice().add(priceChange);
-
-                            stock.setCurrentPrice(newPrice);
-                            return stockRepository.save(stock);
-                        }));
+        return stockRepository.findAll()
+                .collectMap(Stock::getId)
+                .flatMapMany(stocks -> ticks.asFlux()
+                        .filter(tick -> stocks.containsKey(tick.getStockId()))
+                        .map(tick -> withPrice(stocks.get(tick.getStockId()), tick)))
+                .onBackpressureBuffer(STREAM_BUFFER, BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    /**
+     * Publish a price to every consumer of the shared pipeline: streams,
+     * rolling statistics and stop-loss triggers. Persisting it is up to the
+     * caller, see {@link #savePrices}.
+     */
+    public Mono<Integer> publishTick(Long stockId, BigDecimal price, long volume) {
+        ticks.emitNext(new MarketData(stockId, price, volume),
+                Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(10)));
+        marketStatisticsService.recordPrice(stockId, price);
+        return stopLossTriggerService.onPrice(stockId, price);
+    }
+
+    /**
+     * Record market data snapshots in the price history and move the stock
+     * prices to them
+     */
+    public Mono<Void> savePrices(List<MarketData> snapshots) {
+        return marketDataRepository.saveAll(snapshots)
+                .concatMap(snapshot -> stockRepository.updatePrice(
+                        snapshot.getStockId(), snapshot.getPrice(), snapshot.getTimestamp()))
+                .then(Mono.fromRunnable(stockCatalogCache::invalidate));
+    }
+
+    /**
+     * Every price update published to the shared pipeline, across all stocks
+     */
+    public Flux<MarketData> ticks() {
+        return ticks.asFlux();
+    }
+
+    private static Stock withPrice(Stock stock, MarketData tick) {
+        return new Stock(stock.getId(), stock.getSymbol(), stock.getName(), stock.getSector(),
+                tick.getPrice(), tick.getTimestamp());
     }
 }
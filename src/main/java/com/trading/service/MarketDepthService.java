@@ -0,0 +1,111 @@
+package com.trading.service;
+
+import com.trading.dto.DepthSnapshot;
+import com.trading.model.Order;
+import com.trading.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Level 2 depth per stock, built from PENDING LIMIT orders that rest on the
+ * book (IOC and FOK orders never do) and kept current as orders are placed,
+ * amended, filled, cancelled and expired.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MarketDepthService {
+
+    private final OrderRepository orderRepository;
+    private final Map<Long, OrderBookDepth> books = new ConcurrentHashMap<>();
+    private final Map<Long, Long> stockByOrder = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRestingOrders() {
+        orderRepository.findByOrderTypeAndStatus("LIMIT", "PENDING")
+                .doOnNext(this::apply)
+                .count()
+                .subscribe(
+                        count -> log.info("Loaded {} resting orders into market depth", count),
+                        error -> log.error("Failed to load market depth: {}", error.getMessage()));
+    }
+
+    /**
+     * Bring the book in line with the order's current state
+     */
+    public void apply(Order order) {
+        if (!rests(order)) {
+            remove(order.getId());
+            return;
+        }
+
+        Long previousStock = stockByOrder.put(order.getId(), order.getStockId());
+        if (previousStock != null && !previousStock.equals(order.getStockId())) {
+            books.get(previousStock).remove(order.getId());
+        }
+        bookFor(order.getStockId()).update(order.getId(), order.getSide(), order.getPrice(),
+                order.getQuantity() - order.getFilledQuantity());
+    }
+
+    public void remove(Long orderId) {
+        Long stockId = stockByOrder.remove(orderId);
+        OrderBookDepth book = stockId != null ? books.get(stockId) : null;
+        if (book != null) {
+            book.remove(orderId);
+        }
+    }
+
+    public Mono<DepthSnapshot> getDepth(Long stockId, int levels) {
+        int depth = Paging.limit(levels);
+        OrderBookDepth book = books.get(stockId);
+        return Mono.just(book != null
+                ? book.snapshot(depth)
+                : new DepthSnapshot(stockId, 0L, List.of(), List.of()));
+    }
+
+    /**
+     * A snapshot event followed by delta events. Event ids are the book's
+     * sequence numbers; a client that sees a gap should resubscribe.
+     */
+    public Flux<ServerSentEvent<Object>> streamDepth(Long stockId, int levels) {
+        int depth = Paging.limit(levels);
+        return Flux.defer(() -> {
+            OrderBookDepth book = bookFor(stockId);
+            DepthSnapshot snapshot = book.snapshot(depth);
+            return Flux.just(event("snapshot", snapshot.getSequence(), snapshot))
+                    .concatWith(book.deltas()
+                            .filter(delta -> delta.getSequence() > snapshot.getSequence())
+                            .map(delta -> event("delta", delta.getSequence(), delta)));
+        });
+    }
+
+    private static boolean rests(Order order) {
+        return "LIMIT".equals(order.getOrderType())
+                && "PENDING".equals(order.getStatus())
+                && order.getPrice() != null
+                && !"IOC".equals(order.getTimeInForce())
+                && !"FOK".equals(order.getTimeInForce())
+                && order.getQuantity() > order.getFilledQuantity();
+    }
+
+    private static ServerSentEvent<Object> event(String type, long sequence, Object data) {
+        return ServerSentEvent.builder(data)
+                .event(type)
+                .id(Long.toString(sequence))
+                .build();
+    }
+
+    private OrderBookDepth bookFor(Long stockId) {
+        return books.computeIfAbsent(stockId, OrderBookDepth::new);
+    }
+}
@@ -0,0 +1,79 @@
+package com.trading.service;
+
+import com.trading.model.MarketData;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Binary market data feed. Each tick is encoded once into a fixed 40 byte
+ * big-endian frame that every WebSocket subscriber sends as is:
+ *
+ * <pre>
+ * offset  0  long  sequence, per stock
+ * offset  8  long  stock id
+ * offset 16  long  price in ten-thousandths
+ * offset 24  long  volume
+ * offset 32  long  timestamp, epoch milliseconds
+ * </pre>
+ */
+@Service
+public class MarketFeedService {
+
+    public static final int FRAME_BYTES = 40;
+    public static final int PRICE_SCALE = 4;
+
+    private final Map<Long, AtomicLong> sequences = new ConcurrentHashMap<>();
+    private final Flux<TickFrame> frames;
+
+    public MarketFeedService(MarketDataService marketDataService) {
+        this.frames = marketDataService.ticks()
+                .map(this::encode)
+                .share();
+    }
+
+    public Flux<TickFrame> frames() {
+        return frames;
+    }
+
+    private TickFrame encode(MarketData tick) {
+        long sequence = sequences.computeIfAbsent(tick.getStockId(), stockId -> new AtomicLong())
+                .incrementAndGet();
+        byte[] payload = ByteBuffer.allocate(FRAME_BYTES)
+                .putLong(sequence)
+                .putLong(tick.getStockId())
+                .putLong(tick.getPrice().setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValue())
+                .putLong(tick.getVolume() != null ? tick.getVolume() : 0L)
+                .putLong(tick.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                .array();
+        return new TickFrame(tick.getStockId(), payload);
+    }
+
+    public static final class TickFrame {
+
+        private final Long stockId;
+        private final byte[] payload;
+
+        TickFrame(Long stockId, byte[] payload) {
+            this.stockId = stockId;
+            this.payload = payload;
+        }
+
+        public Long getStockId() {
+            return stockId;
+        }
+
+        /**
+         * Shared by all subscribers; must not be modified
+         */
+        public byte[] getPayload() {
+            return payload;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.trading.service;
+
+import com.trading.model.MarketData;
+import com.trading.model.Stock;
+import com.trading.repository.StockRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Generates price ticks for every stock and feeds them into the shared
+ * pipeline of {@link MarketDataService}.
+ * <p>
+ * Each stock follows its own {@link PricePathModel} path, geometric Brownian
+ * motion optionally with jumps ({@code model: jump}). The n-th price of a
+ * stock depends only on the seed and its starting price, not on timing,
+ * threads or the other stocks, so a run can be replayed exactly.
+ * <p>
+ * Ticks are generated in batches on a dedicated thread at the configured
+ * rate per stock. Only the last price of each stock per persist interval is
+ * written to the database.
+ */
+@Slf4j
+@Service
+public class MarketSimulator {
+
+    // 252 sessions of 6.5 hours; drift and volatility are annualized over trading time
+    private static final double TRADING_SECONDS_PER_YEAR = 252 * 6.5 * 3600;
+
+    private final MarketDataService marketDataService;
+    private final StockRepository stockRepository;
+    private final boolean enabled;
+    private final long seed;
+    private final boolean jumps;
+    private final double ticksPerSecond;
+    private final PricePathModel pathModel;
+    private final Duration batchInterval;
+    private final Duration persistInterval;
+    private final Scheduler scheduler = Schedulers.newSingle("market-simulator");
+    private final Disposable.Composite tasks = Disposables.composite();
+    private List<SymbolPath> paths = List.of();
+    private long lastBatchNanos;
+
+    public MarketSimulator(MarketDataService marketDataService, StockRepository stockRepository,
+            @Value("${trading.simulator.enabled:true}") boolean enabled,
+            @Value("${trading.simulator.seed:42}") long seed,
+            @Value("${trading.simulator.model:gbm}") String model,
+            @Value("${trading.simulator.ticks-per-second:1}") double ticksPerSecond,
+            @Value("${trading.simulator.drift:0.05}") double drift,
+            @Value("${trading.simulator.volatility:0.3}") double volatility,
+            @Value("${trading.simulator.time-scale:3600}") double timeScale,
+            @Value("${trading.simulator.jump-intensity:25}") double jumpIntensity,
+            @Value("${trading.simulator.jump-mean:-0.01}") double jumpMean,
+            @Value("${trading.simulator.jump-volatility:0.04}") double jumpVolatility,
+            @Value("${trading.simulator.max-tick-volume:500}") int maxTickVolume,
+            @Value("${trading.simulator.batch-interval:10ms}") Duration batchInterval,
+            @Value("${trading.simulator.persist-interval:5s}") Duration persistInterval) {
+        if (!"gbm".equalsIgnoreCase(model) && !"jump".equalsIgnoreCase(model)) {
+            throw new IllegalArgumentException("Unknown simulator model: " + model);
+        }
+        if (ticksPerSecond <= 0 || timeScale <= 0 || maxTickVolume < 1) {
+            throw new IllegalArgumentException("Simulator rate, time scale and tick volume must be positive");
+        }
+        this.marketDataService = marketDataService;
+        this.stockRepository = stockRepository;
+        this.enabled = enabled;
+        this.seed = seed;
+        this.jumps = "jump".equalsIgnoreCase(model);
+        this.ticksPerSecond = ticksPerSecond;
+        // Simulated trading time that passes between two ticks of a stock
+        double timeStepYears = timeScale / ticksPerSecond / TRADING_SECONDS_PER_YEAR;
+        this.pathModel = new PricePathModel(jumps, drift, volatility, timeStepYears,
+                jumpIntensity, jumpMean, jumpVolatility, maxTickVolume);
+        this.batchInterval = batchInterval;
+        this.persistInterval = persistInterval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        stockRepository.findAll()
+                .sort(Comparator.comparing(Stock::getId))
+                .map(stock -> new SymbolPath(stock.getId(),
+                        pathModel.newPath(seed, stock.getId(), stock.getCurrentPrice().doubleValue())))
+                .collectList()
+                .publishOn(scheduler)
+                .subscribe(loaded -> {
+                    paths = loaded;
+                    lastBatchNanos = System.nanoTime();
+                    tasks.add(Flux.interval(batchInterval, scheduler).subscribe(tick -> generateBatch()));
+                    tasks.add(Flux.interval(persistInterval, scheduler).subscribe(tick -> persist()));
+                    log.info("Simulating {} stocks at {} ticks/s each ({} model, seed {})",
+                            loaded.size(), ticksPerSecond, jumps ? "jump" : "gbm", seed);
+                }, error -> log.error("Failed to start market simulator: {}", error.getMessage()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        tasks.dispose();
+        scheduler.dispose();
+    }
+
+    private void generateBatch() {
+        long now = System.nanoTime();
+        // Cap the catch-up after a pause at one second of ticks
+        double elapsedSeconds = Math.min(1.0, (now - lastBatchNanos) / 1_000_000_000d);
+        lastBatchNanos = now;
+
+        for (SymbolPath path : paths) {
+            path.due += elapsedSeconds * ticksPerSecond;
+            while (path.due >= 1) {
+                path.due--;
+                path.path.step();
+                path.pendingVolume += path.path.lastVolume();
+                marketDataService.publishTick(path.stockId, path.path.price(), path.path.lastVolume())
+                        .subscribe(null, error -> log.error("Failed to publish tick for stock {}: {}",
+                                path.stockId, error.getMessage()));
+            }
+        }
+    }
+
+    private void persist() {
+        LocalDateTime now = LocalDateTime.now();
+        List<MarketData> snapshots = new ArrayList<>();
+        for (SymbolPath path : paths) {
+            if (path.pendingVolume > 0) {
+                MarketData snapshot = new MarketData(path.stockId, path.path.price(), path.pendingVolume);
+                snapshot.setTimestamp(now);
+                snapshots.add(snapshot);
+                path.pendingVolume = 0;
+            }
+        }
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        marketDataService.savePrices(snapshots)
+                .subscribe(null, error -> log.error("Failed to save simulated prices: {}", error.getMessage()));
+    }
+
+    /**
+     * Only touched on the simulator thread
+     */
+    private static class SymbolPath {
+
+        private final Long stockId;
+        private final PricePathModel.Path path;
+        private double due;
+        private long pendingVolume;
+
+        private SymbolPath(Long stockId, PricePathModel.Path path) {
+            this.stockId = stockId;
+            this.path = path;
+        }
+    }
+}
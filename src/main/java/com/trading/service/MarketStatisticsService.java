@@ -0,0 +1,93 @@
+package com.trading.service;
+
+import com.trading.dto.SymbolStatistics;
+import com.trading.model.Trade;
+import com.trading.repository.TradeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rolling 24 hour statistics per stock, updated as trades settle and prices
+ * tick so that reads never aggregate trades or market data from the database.
+ */
+@Slf4j
+@Service
+public class MarketStatisticsService {
+
+    private final TradeRepository tradeRepository;
+    private final Duration streamInterval;
+    private final Map<Long, RollingWindowStatistics> statistics = new ConcurrentHashMap<>();
+    private final Sinks.Many<Long> updates = Sinks.many().multicast().directBestEffort();
+
+    public MarketStatisticsService(TradeRepository tradeRepository,
+            @Value("${trading.statistics.stream-interval:1s}") Duration streamInterval) {
+        this.tradeRepository = tradeRepository;
+        this.streamInterval = streamInterval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        LocalDateTime now = LocalDateTime.now();
+        tradeRepository.findByExecutedAtBetween(now.minusDays(1), now)
+                .doOnNext(this::recordTrade)
+                .count()
+                .subscribe(count -> log.info("Loaded {} trades into rolling statistics", count),
+                        error -> log.error("Failed to load rolling statistics: {}", error.getMessage()));
+    }
+
+    public void recordTrade(Trade trade) {
+        LocalDateTime executedAt = trade.getExecutedAt() != null ? trade.getExecutedAt() : LocalDateTime.now();
+        statisticsFor(trade.getStockId())
+                .recordTrade(toEpochMillis(executedAt), trade.getPrice(), trade.getQuantity());
+        updates.tryEmitNext(trade.getStockId());
+    }
+
+    public void recordPrice(Long stockId, BigDecimal price) {
+        statisticsFor(stockId).recordPrice(System.currentTimeMillis(), price);
+        updates.tryEmitNext(stockId);
+    }
+
+    public Mono<SymbolStatistics> getStatistics(Long stockId) {
+        return Mono.justOrEmpty(statistics.get(stockId))
+                .map(window -> window.snapshot(System.currentTimeMillis()));
+    }
+
+    public Flux<SymbolStatistics> getAllStatistics() {
+        long now = System.currentTimeMillis();
+        return Flux.fromIterable(statistics.values())
+                .map(window -> window.snapshot(now));
+    }
+
+    /**
+     * Current statistics followed by at most one update per stream interval
+     * while the stock keeps trading or ticking
+     */
+    public Flux<SymbolStatistics> streamStatistics(Long stockId) {
+        return getStatistics(stockId)
+                .concatWith(updates.asFlux()
+                        .filter(stockId::equals)
+                        .sample(streamInterval)
+                        .flatMap(id -> getStatistics(stockId)));
+    }
+
+    private RollingWindowStatistics statisticsFor(Long stockId) {
+        return statistics.computeIfAbsent(stockId, RollingWindowStatistics::new);
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
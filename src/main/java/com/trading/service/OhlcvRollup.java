@@ -0,0 +1,109 @@
+package com.trading.service;
+
+import com.trading.model.MarketData;
+import com.trading.model.PriceBar;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rolls market data up into open/high/low/close/volume bars of a fixed
+ * interval while it streams past. One bar per stock is open at a time and
+ * is closed by the first row of a later bucket; rows from different stocks
+ * may interleave. A row of an earlier bucket arriving late becomes a partial
+ * bar of its own, returned with the bars it arrived with. Bars record the
+ * times of their first and last row, so the open and close stay right
+ * whatever the row order and partial bars of one bucket can be merged.
+ * Buckets are aligned to midnight.
+ * <p>
+ * Not thread-safe.
+ */
+public class OhlcvRollup {
+
+    private static final int SECONDS_PER_DAY = 86_400;
+
+    private final int intervalSeconds;
+    private final Map<Long, PriceBar> open = new HashMap<>();
+
+    public OhlcvRollup(int intervalSeconds) {
+        if (intervalSeconds < 1 || intervalSeconds > SECONDS_PER_DAY) {
+            throw new IllegalArgumentException("Rollup interval must be between one second and one day");
+        }
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    /**
+     * Add rows and return the bars they closed, and any partial bars of
+     * late rows, at most one per stock and bucket
+     */
+    public List<PriceBar> add(List<MarketData> rows) {
+        Map<BarKey, PriceBar> closed = new LinkedHashMap<>();
+        for (MarketData row : rows) {
+            LocalDateTime bucket = bucketStart(row.getTimestamp());
+            PriceBar bar = open.get(row.getStockId());
+            if (bar != null && bar.getBucketStart().equals(bucket)) {
+                include(bar, row);
+                continue;
+            }
+            if (bar != null && bucket.isBefore(bar.getBucketStart())) {
+                PriceBar late = closed.get(new BarKey(row.getStockId(), bucket));
+                if (late != null) {
+                    include(late, row);
+                } else {
+                    closed.put(new BarKey(row.getStockId(), bucket), newBar(row, bucket));
+                }
+                continue;
+            }
+            if (bar != null) {
+                closed.put(new BarKey(bar.getStockId(), bar.getBucketStart()), bar);
+            }
+            open.put(row.getStockId(), newBar(row, bucket));
+        }
+        return new ArrayList<>(closed.values());
+    }
+
+    /**
+     * Close and return the bars still open
+     */
+    public List<PriceBar> finish() {
+        List<PriceBar> remaining = new ArrayList<>(open.values());
+        open.clear();
+        return remaining;
+    }
+
+    private PriceBar newBar(MarketData row, LocalDateTime bucket) {
+        return new PriceBar(row.getStockId(), intervalSeconds, bucket, row.getPrice(), row.getVolume(),
+                row.getTimestamp());
+    }
+
+    private static void include(PriceBar bar, MarketData row) {
+        if (row.getPrice().compareTo(bar.getHighPrice()) > 0) {
+            bar.setHighPrice(row.getPrice());
+        }
+        if (row.getPrice().compareTo(bar.getLowPrice()) < 0) {
+            bar.setLowPrice(row.getPrice());
+        }
+        if (row.getTimestamp().isBefore(bar.getOpenedAt())) {
+            bar.setOpenPrice(row.getPrice());
+            bar.setOpenedAt(row.getTimestamp());
+        }
+        if (!row.getTimestamp().isBefore(bar.getClosedAt())) {
+            bar.setClosePrice(row.getPrice());
+            bar.setClosedAt(row.getTimestamp());
+        }
+        bar.setVolume(bar.getVolume() + row.getVolume());
+    }
+
+    private LocalDateTime bucketStart(LocalDateTime timestamp) {
+        int secondOfDay = timestamp.toLocalTime().toSecondOfDay();
+        return timestamp.truncatedTo(ChronoUnit.DAYS).plusSeconds(secondOfDay - secondOfDay % intervalSeconds);
+    }
+
+    private record BarKey(Long stockId, LocalDateTime bucketStart) {
+    }
+}
@@ -0,0 +1,130 @@
+package com.trading.service;
+
+import com.trading.dto.DepthDelta;
+import com.trading.dto.DepthLevel;
+import com.trading.dto.DepthSnapshot;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Aggregated price levels of one stock's resting LIMIT orders. Each order's
+ * contribution is remembered so an update only touches the levels it moves
+ * between; every changed level is published as a sequenced delta.
+ */
+class OrderBookDepth {
+
+    private static final int REPLAY_DELTAS = 1024;
+
+    private final Long stockId;
+    private final NavigableMap<BigDecimal, Level> bids = new TreeMap<>(Comparator.reverseOrder());
+    private final NavigableMap<BigDecimal, Level> asks = new TreeMap<>();
+    private final Map<Long, Resting> orders = new HashMap<>();
+    // Replays recent deltas so a stream can start from a snapshot without a gap
+    private final Sinks.Many<DepthDelta> deltas = Sinks.many().replay().limit(REPLAY_DELTAS);
+    private long sequence;
+
+    OrderBookDepth(Long stockId) {
+        this.stockId = stockId;
+    }
+
+    /**
+     * Set the remaining quantity an order rests with; zero takes it out of the book.
+     */
+    synchronized void update(Long orderId, String side, BigDecimal price, long remaining) {
+        Resting previous = orders.get(orderId);
+        if (previous != null && previous.side.equals(side) && previous.price.compareTo(price) == 0) {
+            if (previous.remaining == remaining) {
+                return;
+            }
+            Level level = levels(side).get(price);
+            level.quantity += remaining - previous.remaining;
+            if (remaining > 0) {
+                previous.remaining = remaining;
+            } else {
+                orders.remove(orderId);
+                level.orderCount--;
+            }
+            publish(side, price, level);
+            return;
+        }
+
+        if (previous != null) {
+            remove(orderId);
+        }
+        if (remaining > 0) {
+            orders.put(orderId, new Resting(side, price, remaining));
+            Level level = levels(side).computeIfAbsent(price, p -> new Level());
+            level.quantity += remaining;
+            level.orderCount++;
+            publish(side, price, level);
+        }
+    }
+
+    synchronized void remove(Long orderId) {
+        Resting previous = orders.remove(orderId);
+        if (previous == null) {
+            return;
+        }
+        Level level = levels(previous.side).get(previous.price);
+        level.quantity -= previous.remaining;
+        level.orderCount--;
+        publish(previous.side, previous.price, level);
+    }
+
+    synchronized DepthSnapshot snapshot(int depth) {
+        return new DepthSnapshot(stockId, sequence, top(bids, depth), top(asks, depth));
+    }
+
+    Flux<DepthDelta> deltas() {
+        return deltas.asFlux();
+    }
+
+    private void publish(String side, BigDecimal price, Level level) {
+        NavigableMap<BigDecimal, Level> levels = levels(side);
+        if (level.orderCount == 0) {
+            levels.remove(price);
+        }
+        deltas.tryEmitNext(new DepthDelta(stockId, ++sequence, side, price, level.quantity, level.orderCount));
+    }
+
+    private NavigableMap<BigDecimal, Level> levels(String side) {
+        return "BUY".equals(side) ? bids : asks;
+    }
+
+    private static List<DepthLevel> top(NavigableMap<BigDecimal, Level> levels, int depth) {
+        List<DepthLevel> result = new ArrayList<>(Math.min(depth, levels.size()));
+        for (Map.Entry<BigDecimal, Level> entry : levels.entrySet()) {
+            if (result.size() == depth) {
+                break;
+            }
+            result.add(new DepthLevel(entry.getKey(), entry.getValue().quantity, entry.getValue().orderCount));
+        }
+        return result;
+    }
+
+    private static final class Level {
+        private long quantity;
+        private int orderCount;
+    }
+
+    private static final class Resting {
+        private final String side;
+        private final BigDecimal price;
+        private long remaining;
+
+        private Resting(String side, BigDecimal price, long remaining) {
+            this.side = side;
+            this.price = price;
+            this.remaining = remaining;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.trading.service;
+
+import com.trading.model.Order;
+import com.trading.repository.OrderRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+
+/**
+ * Expires DAY and GTD orders. Deadlines are kept in a {@link TimingWheel}
+ * driven by a single periodic tick, so expiry never scans the orders table;
+ * due orders are moved to EXPIRED with one UPDATE per batch.
+ */
+@Slf4j
+@Service
+public class OrderExpiryService {
+
+    private final OrderRepository orderRepository;
+    private final StopLossTriggerService stopLossTriggerService;
+    private final MarketDepthService marketDepthService;
+    private final AccountEventBus accountEventBus;
+    private final Duration tick;
+    private final int batchSize;
+    private final LocalTime dayClose;
+    private final TimingWheel wheel;
+    private Disposable ticker;
+
+    public OrderExpiryService(OrderRepository orderRepository,
+            StopLossTriggerService stopLossTriggerService,
+            MarketDepthService marketDepthService,
+            AccountEventBus accountEventBus,
+            @Value("${trading.orders.expiry.tick:1s}") Duration tick,
+            @Value("${trading.orders.expiry.batch-size:500}") int batchSize,
+            @Value("${trading.orders.day-close:16:00}") String dayClose) {
+        this.orderRepository = orderRepository;
+        this.stopLossTriggerService = stopLossTriggerService;
+        this.marketDepthService = marketDepthService;
+        this.accountEventBus = accountEventBus;
+        this.tick = tick;
+        this.batchSize = batchSize;
+        this.dayClose = LocalTime.parse(dayClose);
+        this.wheel = new TimingWheel(tick.toMillis(), System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        orderRepository.findByStatusAndExpiresAtIsNotNull("PENDING")
+                .doOnNext(this::schedule)
+                .count()
+                .subscribe(
+                        count -> log.info("Scheduled expiry for {} pending orders", count),
+                        error -> log.error("Failed to load expiring orders: {}", error.getMessage()));
+
+        ticker = Flux.interval(tick)
+                .onBackpressureDrop()
+                .concatMap(t -> expireDueOrders(), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.dispose();
+        }
+    }
+
+    /**
+     * Expiry time for a new order, or null when it does not expire.
+     */
+    public LocalDateTime resolveExpiry(String timeInForce, LocalDateTime requestedExpiry) {
+        return switch (timeInForce) {
+            case "DAY" -> {
+                LocalDateTime close = LocalDateTime.now().with(dayClose);
+                yield close.isAfter(LocalDateTime.now()) ? close : close.plusDays(1);
+            }
+            case "GTD" -> {
+                if (requestedExpiry == null) {
+                    throw new IllegalArgumentException("Expiry time is required for GTD orders");
+                }
+                if (!requestedExpiry.isAfter(LocalDateTime.now())) {
+                    throw new IllegalArgumentException("Expiry time must be in the future");
+                }
+                yield requestedExpiry;
+            }
+            default -> null;
+        };
+    }
+
+    public void schedule(Order order) {
+        if (order.getExpiresAt() == null || !"PENDING".equals(order.getStatus())) {
+            return;
+        }
+        long deadline = order.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        wheel.schedule(order.getId(), deadline);
+    }
+
+    private Mono<Long> expireDueOrders() {
+        var due = wheel.advance(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return Mono.just(0L);
+        }
+
+        return Flux.fromIterable(due)
+                .buffer(batchSize)
+                .concatMap(batch -> orderRepository.expireOrders(batch, LocalDateTime.now())
+                        .doOnNext(expired -> {
+                            batch.forEach(id -> {
+                                stopLossTriggerService.unregister(id);
+                                marketDepthService.remove(id);
+                            });
+                            log.debug("Expired {} of {} due orders", expired, batch.size());
+                        })
+                        .flatMap(expired -> expired == 0
+                                ? Mono.just(expired)
+                                : orderRepository.findAllById(batch)
+                                        .filter(order -> "EXPIRED".equals(order.getStatus()))
+                                        .doOnNext(accountEventBus::publishOrder)
+                                        .then(Mono.just(expired))))
+                .reduce(0L, (total, expired) -> total + expired)
+                .onErrorResume(error -> {
+                    // Retry on the next tick; the UPDATE skips orders already expired
+                    log.error("Failed to expire orders {}: {}", due, error.getMessage());
+                    due.forEach(id -> wheel.schedule(id, 0L));
+                    return Mono.just(0L);
+                });
+    }
+}
@@ -1,5 +1,7 @@
 package com.trading.service;
 
+import com.trading.config.DataSourceRouting;
+import com.trading.dto.AmendOrderRequest;
 import com.trading.dto.CreateOrderRequest;
 import com.trading.model.Order;
 import com.trading.repository.AccountRepository;
@@ -8,20 +10,30 @@ import com.trading.repository.StockRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Set;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class OrderService {
 
+    private static final Set<String> TIME_IN_FORCE = Set.of("GTC", "IOC", "FOK", "DAY", "GTD");
+
     private final OrderRepository orderRepository;
     private final AccountRepository accountRepository;
     private final StockRepository stockRepository;
+    private final StopLossTriggerService stopLossTriggerService;
+    private final OrderExpiryService orderExpiryService;
+    private final MarketDepthService marketDepthService;
+    private final AccountEventBus accountEventBus;
+    private final TransactionalOperator transactionalOperator;
 
     public Mono<Order> placeOrder(CreateOrderRequest request) {
         log.debug("Placing order: {}", request);
@@ -46,6 +58,26 @@ public class OrderService {
                                             "Price is required for LIMIT and STOP_LOSS orders"));
                                 }
 
+                                // Validate time in force; IOC and FOK resolve in the next matching pass
+                                String timeInForce = request.getTimeInForce() != null
+                                        ? request.getTimeInForce()
+                                        : "GTC";
+                                if (!TIME_IN_FORCE.contains(timeInForce)) {
+                                    return Mono.error(new IllegalArgumentException(
+                                            "Invalid time in force: " + timeInForce));
+                                }
+                                if ("STOP_LOSS".equals(request.getOrderType())
+                                        && ("IOC".equals(timeInForce) || "FOK".equals(timeInForce))) {
+                                    return Mono.error(new IllegalArgumentException(
+                                            "STOP_LOSS orders cannot be IOC or FOK"));
+                                }
+                                LocalDateTime expiresAt;
+                                try {
+                                    expiresAt = orderExpiryService.resolveExpiry(timeInForce, request.getExpiresAt());
+                                } catch (IllegalArgumentException ex) {
+                                    return Mono.error(ex);
+                                }
+
                                 // For MARKET orders, use current stock price
                                 BigDecimal orderPrice = "MARKET".equals(request.getOrderType())
                                         ? stock.getCurrentPrice()
@@ -68,8 +100,16 @@ public class OrderService {
                                         request.getQuantity(),
                                         orderPrice,
                                         "PENDING");
-
-                                return orderRepository.save(order);
+                                order.setTimeInForce(timeInForce);
+                                order.setExpiresAt(expiresAt);
+
+                                return orderRepository.save(order)
+                                        .doOnNext(saved -> {
+                                            reindex(saved);
+                                            orderExpiryService.schedule(saved);
+                                            accountEventBus.publish(saved.getAccountId(),
+                                                    AccountEventBus.ORDER_ACCEPTED, saved);
+                                        });
                             });
                 });
     }
@@ -78,12 +118,14 @@ public class OrderService {
         return orderRepository.findById(id);
     }
 
-    public Flux<Order> findByAccountId(Long accountId) {
-        return orderRepository.findByAccountId(accountId);
+    public Flux<Order> findByAccountId(Long accountId, Long before, int limit) {
+        return DataSourceRouting.readOnly(
+                orderRepository.findPageByAccountId(accountId, Paging.before(before), Paging.limit(limit)));
     }
 
-    public Flux<Order> findByStatus(String status) {
-        return orderRepository.findByStatus(status);
+    public Flux<Order> findByStatus(String status, Long before, int limit) {
+        return DataSourceRouting.readOnly(
+                orderRepository.findPageByStatus(status, Paging.before(before), Paging.limit(limit)));
     }
 
     public Mono<Order> cancelOrder(Long orderId) {
@@ -97,10 +139,81 @@ public class OrderService {
                     if ("CANCELLED".equals(order.getStatus())) {
                         return Mono.error(new IllegalStateException("Order already cancelled"));
                     }
+                    if ("EXPIRED".equals(order.getStatus())) {
+                        return Mono.error(new IllegalStateException("Order already expired"));
+                    }
 
                     order.setStatus("CANCELLED");
                     order.setUpdatedAt(LocalDateTime.now());
-                    return orderRepository.save(order);
+                    return orderRepository.save(order)
+                            .doOnNext(cancelled -> {
+                                stopLossTriggerService.unregister(cancelled.getId());
+                                marketDepthService.remove(cancelled.getId());
+                                accountEventBus.publishOrder(cancelled);
+                            });
+                });
+    }
+
+    /**
+     * Amend price and/or quantity of a PENDING order in place. A quantity
+     * decrease keeps the order's queue position; a price change or quantity
+     * increase re-queues it behind orders already resting.
+     */
+    public Mono<Order> amendOrder(Long orderId, AmendOrderRequest request) {
+        log.debug("Amending order {}: {}", orderId, request);
+
+        if (request.getQuantity() == null && request.getPrice() == null) {
+            return Mono.error(new IllegalArgumentException("Price or quantity is required"));
+        }
+
+        return orderRepository.amendPendingOrder(orderId, request.getQuantity(), request.getPrice(),
+                        request.getPrice() != null, LocalDateTime.now())
+                .flatMap(updated -> orderRepository.findById(orderId)
+                        .switchIfEmpty(Mono.error(new IllegalArgumentException("Order not found")))
+                        .flatMap(order -> updated > 0
+                                ? Mono.just(order)
+                                : Mono.error(amendRejection(order, request))))
+                .doOnNext(amended -> {
+                    reindex(amended);
+                    accountEventBus.publish(amended.getAccountId(), AccountEventBus.ORDER_AMENDED, amended);
+                });
+    }
+
+    private RuntimeException amendRejection(Order order, AmendOrderRequest request) {
+        if (!"PENDING".equals(order.getStatus())) {
+            return new IllegalStateException("Only PENDING orders can be amended");
+        }
+        if ("MARKET".equals(order.getOrderType()) && request.getPrice() != null) {
+            return new IllegalArgumentException("Cannot change the price of a MARKET order");
+        }
+        if (request.getQuantity() != null && request.getQuantity() <= order.getFilledQuantity()) {
+            return new IllegalArgumentException("Quantity must exceed the filled quantity");
+        }
+        return new IllegalArgumentException("Insufficient balance");
+    }
+
+    /**
+     * Fill both sides of a trade in one transaction: if either order cannot
+     * take the fill, neither is filled. An order stays PENDING while
+     * partially filled and becomes EXECUTED once fully filled.
+     */
+    public Mono<Tuple2<Order, Order>> recordFills(Long buyOrderId, Long sellOrderId, int quantity) {
+        LocalDateTime now = LocalDateTime.now();
+        return orderRepository.recordFill(buyOrderId, quantity, now)
+                .filter(buyFilled -> buyFilled > 0)
+                .flatMap(buyFilled -> orderRepository.recordFill(sellOrderId, quantity, now))
+                .filter(sellFilled -> sellFilled > 0)
+                .switchIfEmpty(Mono.error(new IllegalStateException(
+                        "Orders " + buyOrderId + " and " + sellOrderId + " cannot be filled for " + quantity)))
+                .as(transactionalOperator::transactional)
+                .then(Mono.defer(() -> Mono.zip(filledOrder(buyOrderId), filledOrder(sellOrderId))));
+    }
+
+    private Mono<Order> filledOrder(Long orderId) {
+        return orderRepository.findById(orderId)
+                .doOnNext(filled -> {
+                    reindex(filled);
+                    accountEventBus.publishOrder(filled);
                 });
     }
 
@@ -109,7 +222,16 @@ public class OrderService {
                 .flatMap(order -> {
                     order.setStatus(status);
                     order.setUpdatedAt(LocalDateTime.now());
-                    return orderRepository.save(order);
+                    return orderRepository.save(order)
+                            .doOnNext(updated -> {
+                                reindex(updated);
+                                accountEventBus.publishOrder(updated);
+                            });
                 });
     }
+
+    private void reindex(Order order) {
+        stopLossTriggerService.register(order);
+        marketDepthService.apply(order);
+    }
 }
@@ -0,0 +1,26 @@
+package com.trading.service;
+
+/**
+ * Keyset paging for history listings. Pages are ordered newest first by id;
+ * a client fetches the next page by passing the id of the last item it
+ * received as {@code before}, so each page is an index range scan no matter
+ * how deep into the history it is.
+ */
+public final class Paging {
+
+    public static final int MAX_LIMIT = 500;
+
+    private Paging() {
+    }
+
+    public static long before(Long before) {
+        return before != null ? before : Long.MAX_VALUE;
+    }
+
+    public static int limit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
@@ -0,0 +1,146 @@
+package com.trading.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt off the event loop on a fixed pool with a bounded queue; when
+ * the queue is full the request fails fast with a
+ * {@link RejectedExecutionException} instead of piling up. Successful
+ * verifications can optionally be remembered for a short TTL, keyed by an
+ * HMAC of the password and stored hash under a per-process random key, so
+ * repeated logins skip BCrypt. Nothing reversible is kept in memory.
+ */
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Scheduler scheduler;
+    private final Timer hashTimer;
+    private final Counter rejected;
+    private final boolean cacheEnabled;
+    private final long cacheTtlNanos;
+    private final int cacheMaxSize;
+    private final Map<String, Long> verified = new ConcurrentHashMap<>();
+    private final SecretKeySpec cacheKey;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+            @Value("${trading.security.hashing.threads:0}") int threads,
+            @Value("${trading.security.hashing.queue-capacity:256}") int queueCapacity,
+            @Value("${trading.security.credential-cache.enabled:false}") boolean cacheEnabled,
+            @Value("${trading.security.credential-cache.ttl:5m}") Duration cacheTtl,
+            @Value("${trading.security.credential-cache.max-size:10000}") int cacheMaxSize) {
+        this.passwordEncoder = passwordEncoder;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.scheduler = Schedulers.fromExecutorService(executor, "password-hashing");
+        this.cacheEnabled = cacheEnabled;
+        this.cacheTtlNanos = cacheTtl.toNanos();
+        this.cacheMaxSize = cacheMaxSize;
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.cacheKey = new SecretKeySpec(key, "HmacSHA256");
+
+        Gauge.builder("trading.password.hashing.queue", executor, pool -> pool.getQueue().size())
+                .description("Hashing requests waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("trading.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing requests running")
+                .register(meterRegistry);
+        Gauge.builder("trading.password.credential-cache.size", verified, Map::size)
+                .register(meterRegistry);
+        this.hashTimer = Timer.builder("trading.password.hashing").register(meterRegistry);
+        this.rejected = Counter.builder("trading.password.hashing.rejected")
+                .description("Hashing requests refused because the queue was full")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.dispose();
+    }
+
+    public Mono<String> encode(String rawPassword) {
+        return offload(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public Mono<Boolean> matches(String rawPassword, String encodedPassword) {
+        if (!cacheEnabled) {
+            return offload(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+        }
+
+        String key = cacheKey(rawPassword, encodedPassword);
+        Long expiresAt = verified.get(key);
+        if (expiresAt != null && expiresAt - System.nanoTime() > 0) {
+            return Mono.just(true);
+        }
+        return offload(() -> passwordEncoder.matches(rawPassword, encodedPassword))
+                .doOnNext(matched -> {
+                    if (matched) {
+                        remember(key);
+                    }
+                });
+    }
+
+    private <T> Mono<T> offload(Callable<T> task) {
+        return Mono.fromCallable(() -> hashTimer.recordCallable(task))
+                .subscribeOn(scheduler)
+                .doOnError(RejectedExecutionException.class, error -> rejected.increment());
+    }
+
+    private void remember(String key) {
+        long now = System.nanoTime();
+        if (verified.size() >= cacheMaxSize) {
+            verified.values().removeIf(expiresAt -> expiresAt - now <= 0);
+            if (verified.size() >= cacheMaxSize) {
+                return;
+            }
+        }
+        verified.put(key, now + cacheTtlNanos);
+    }
+
+    private String cacheKey(String rawPassword, String encodedPassword) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(cacheKey);
+            mac.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return Base64.getEncoder().encodeToString(mac.doFinal(rawPassword.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HmacSHA256 is not available", ex);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.trading.service;
 
+import com.trading.config.DataSourceRouting;
 import com.trading.dto.HoldingDetail;
 import com.trading.dto.PortfolioSummary;
 import com.trading.model.PortfolioHolding;
@@ -15,6 +16,12 @@ import reactor.core.publisher.Mono;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 
+/**
+ * Holdings queries and position updates. Positions are kept in the
+ * write-behind {@link HoldingsStore}; reads flush the account's pending
+ * changes, and only that account's, then query portfolio_holdings on the
+ * primary, since a read replica may not have the flush yet.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -23,13 +30,16 @@ public class PortfolioService {
     private final PortfolioHoldingRepository portfolioHoldingRepository;
     private final AccountRepository accountRepository;
     private final StockRepository stockRepository;
+    private final HoldingsStore holdingsStore;
 
     public Flux<PortfolioHolding> getHoldings(Long accountId) {
-        return portfolioHoldingRepository.findByAccountId(accountId);
+        return holdingsStore.flush(accountId)
+                .thenMany(DataSourceRouting.primary(portfolioHoldingRepository.findByAccountId(accountId)));
     }
 
     public Flux<HoldingDetail> getHoldingDetails(Long accountId) {
-        return portfolioHoldingRepository.findByAccountId(accountId)
+        return holdingsStore.flush(accountId).thenMany(DataSourceRouting.primary(
+                portfolioHoldingRepository.findByAccountId(accountId)
                 .flatMap(holding -> stockRepository.findById(holding.getStockId())
                         .map(stock -> {
                             BigDecimal currentValue = stock.getCurrentPrice()
@@ -51,11 +61,11 @@ public class PortfolioService {
                                     currentValue,
                                     profitLoss,
                                     profitLossPercentage);
-                        }));
+                        }))));
     }
 
     public Mono<PortfolioSummary> getPortfolioSummary(Long accountId) {
-        return accountRepository.findById(accountId)
+        return DataSourceRouting.readOnly(accountRepository.findById(accountId)
                 .flatMap(account -> getHoldingDetails(accountId)
                         .collectList()
                         .map(holdings -> {
@@ -82,59 +92,28 @@ public class PortfolioService {
                                     totalProfitLoss,
                                     profitLossPercentage,
                                     holdings.size());
-                        }));
+                        })));
     }
 
-    public Mono<PortfolioHolding> updateHoldingAfterBuy(Long accountId, Long stockId, Integer quantity,
+    /**
+     * @param tradeId trade the fill belongs to, or null when there is none
+     */
+    public Mono<PortfolioHolding> updateHoldingAfterBuy(Long tradeId, Long accountId, Long stockId, Integer quantity,
             BigDecimal price) {
         log.debug("Updating portfolio after BUY: account={}, stock={}, qty={}, price={}", accountId, stockId, quantity,
                 price);
 
-        return portfolioHoldingRepository.findByAccountIdAndStockId(accountId, stockId)
-                .flatMap(existingHolding -> {
-                    // Update existing holding
-                    int newQuantity = existingHolding.getQuantity() + quantity;
-                    BigDecimal totalCost = existingHolding.getAveragePrice()
-                            .multiply(BigDecimal.valueOf(existingHolding.getQuantity()))
-                            .add(price.multiply(BigDecimal.valueOf(quantity)));
-                    BigDecimal newAveragePrice = totalCost.divide(BigDecimal.valueOf(newQuantity), 2,
-                            RoundingMode.HALF_UP);
-
-                    existingHolding.setQuantity(newQuantity);
-                    existingHolding.setAveragePrice(newAveragePrice);
-
-                    return portfolioHoldingRepository.save(existingHolding);
-                })
-                .switchIfEmpty(Mono.defer(() -> {
-                    // Create new holding
-                    PortfolioHolding newHolding = new PortfolioHolding(accountId, stockId, quantity, price);
-                    return portfolioHoldingRepository.save(newHolding);
-                }));
+        return holdingsStore.buy(tradeId, accountId, stockId, quantity, price);
     }
 
-    public Mono<PortfolioHolding> updateHoldingAfterSell(Long accountId, Long stockId, Integer quantity,
+    /**
+     * @param tradeId trade the fill belongs to, or null when there is none
+     */
+    public Mono<PortfolioHolding> updateHoldingAfterSell(Long tradeId, Long accountId, Long stockId, Integer quantity,
             BigDecimal price) {
         log.debug("Updating portfolio after SELL: account={}, stock={}, qty={}, price={}", accountId, stockId, quantity,
                 price);
 
-        return portfolioHoldingRepository.findByAccountIdAndStockId(accountId, stockId)
-                .flatMap(existingHolding -> {
-                    int newQuantity = existingHolding.getQuantity() - quantity;
-
-                    if (newQuantity < 0) {
-                        return Mono.error(new IllegalStateException("Insufficient holdings to sell"));
-                    }
-
-                    if (newQuantity == 0) {
-                        // Delete holding if quantity becomes zero
-                        return portfolioHoldingRepository.delete(existingHolding)
-                                .then(Mono.just(existingHolding));
-                    } else {
-                        // Update quantity
-                        existingHolding.setQuantity(newQuantity);
-                        return portfolioHoldingRepository.save(existingHolding);
-                    }
-                })
-                .switchIfEmpty(Mono.error(new IllegalStateException("No holdings found to sell")));
+        return holdingsStore.sell(tradeId, accountId, stockId, quantity);
     }
 }
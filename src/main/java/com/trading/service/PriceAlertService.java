@@ -0,0 +1,181 @@
+package com.trading.service;
+
+import com.trading.config.DataSourceRouting;
+import com.trading.dto.CreatePriceAlertRequest;
+import com.trading.model.MarketData;
+import com.trading.model.PriceAlert;
+import com.trading.repository.PriceAlertRepository;
+import com.trading.repository.StockRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user price alerts on a stock. Active alerts are held in a
+ * {@link PriceTriggerIndex}: ABOVE alerts fire when the price reaches or
+ * exceeds their threshold, BELOW alerts when it reaches or drops below it, so
+ * a tick only touches the alerts it crosses. Fired alerts are marked
+ * TRIGGERED with one UPDATE per tick and pushed to the user's open streams.
+ * A new alert must lie beyond the last price of its stock, so it fires only
+ * once the price actually crosses it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PriceAlertService {
+
+    private static final int STREAM_BUFFER = 256;
+
+    private final PriceAlertRepository priceAlertRepository;
+    private final StockRepository stockRepository;
+    private final MarketDataService marketDataService;
+    private final PriceTriggerIndex alertIndex = new PriceTriggerIndex();
+    private final Map<Long, PriceAlert> activeAlerts = new ConcurrentHashMap<>();
+    private final Map<Long, BigDecimal> lastPrices = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Sinks.Many<PriceAlert>>> streamsByUser = new ConcurrentHashMap<>();
+    private Disposable ticks;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // Subscribe first so alerts loaded meanwhile see every later tick
+        ticks = marketDataService.ticks().subscribe(this::evaluate);
+        priceAlertRepository.findByStatus("ACTIVE")
+                .doOnNext(this::register)
+                .count()
+                .subscribe(
+                        count -> log.info("Loaded {} active price alerts", count),
+                        error -> log.error("Failed to load active price alerts: {}", error.getMessage()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticks != null) {
+            ticks.dispose();
+        }
+    }
+
+    public Mono<PriceAlert> createAlert(CreatePriceAlertRequest request) {
+        String direction = request.getDirection().toUpperCase();
+        if (!"ABOVE".equals(direction) && !"BELOW".equals(direction)) {
+            return Mono.error(new IllegalArgumentException("Direction must be ABOVE or BELOW"));
+        }
+
+        log.debug("Creating {} {} alert on stock {} for user {}",
+                direction, request.getThreshold(), request.getStockId(), request.getUserId());
+        return stockRepository.findById(request.getStockId())
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("Stock not found")))
+                .flatMap(stock -> {
+                    // Ticks are newer than the stored price, which is only saved every persist interval
+                    BigDecimal price = lastPrices.getOrDefault(stock.getId(), stock.getCurrentPrice());
+                    if ("ABOVE".equals(direction) && request.getThreshold().compareTo(price) <= 0) {
+                        return Mono.error(new IllegalArgumentException(
+                                "Price is already at or above the threshold: " + price));
+                    }
+                    if ("BELOW".equals(direction) && request.getThreshold().compareTo(price) >= 0) {
+                        return Mono.error(new IllegalArgumentException(
+                                "Price is already at or below the threshold: " + price));
+                    }
+                    return priceAlertRepository.save(new PriceAlert(
+                            request.getUserId(), request.getStockId(), direction, request.getThreshold()));
+                })
+                .doOnNext(this::register);
+    }
+
+    public Flux<PriceAlert> getUserAlerts(Long userId) {
+        return DataSourceRouting.readOnly(priceAlertRepository.findByUserId(userId));
+    }
+
+    public Mono<Void> deleteAlert(Long alertId) {
+        return priceAlertRepository.findById(alertId)
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("Price alert not found")))
+                .flatMap(alert -> {
+                    unregister(alertId);
+                    return priceAlertRepository.deleteById(alertId);
+                });
+    }
+
+    /**
+     * Alerts of the user as they fire, from subscription onwards
+     */
+    public Flux<PriceAlert> streamUserAlerts(Long userId) {
+        return Flux.defer(() -> {
+            Sinks.Many<PriceAlert> sink =
+                    Sinks.many().unicast().onBackpressureBuffer(Queues.<PriceAlert>get(STREAM_BUFFER).get());
+            streamsByUser.compute(userId, (id, sinks) -> {
+                Set<Sinks.Many<PriceAlert>> updated = sinks != null ? sinks : ConcurrentHashMap.newKeySet();
+                updated.add(sink);
+                return updated;
+            });
+
+            return sink.asFlux()
+                    .doFinally(signal -> streamsByUser.computeIfPresent(userId, (id, sinks) -> {
+                        sinks.remove(sink);
+                        return sinks.isEmpty() ? null : sinks;
+                    }));
+        });
+    }
+
+    private void register(PriceAlert alert) {
+        if (!"ACTIVE".equals(alert.getStatus())) {
+            return;
+        }
+
+        PriceTriggerIndex.Direction direction = "ABOVE".equals(alert.getDirection())
+                ? PriceTriggerIndex.Direction.RISING
+                : PriceTriggerIndex.Direction.FALLING;
+        activeAlerts.put(alert.getId(), alert);
+        alertIndex.add(alert.getId(), alert.getStockId(), direction, alert.getThreshold());
+    }
+
+    private void unregister(Long alertId) {
+        alertIndex.remove(alertId);
+        activeAlerts.remove(alertId);
+    }
+
+    private void evaluate(MarketData tick) {
+        lastPrices.put(tick.getStockId(), tick.getPrice());
+        List<Long> triggered = alertIndex.trigger(tick.getStockId(), tick.getPrice());
+        if (triggered.isEmpty()) {
+            return;
+        }
+
+        BigDecimal price = tick.getPrice();
+        LocalDateTime now = LocalDateTime.now();
+        List<PriceAlert> fired = new ArrayList<>(triggered.size());
+        for (Long alertId : triggered) {
+            PriceAlert alert = activeAlerts.remove(alertId);
+            if (alert != null) {
+                fired.add(new PriceAlert(alert.getId(), alert.getUserId(), alert.getStockId(),
+                        alert.getDirection(), alert.getThreshold(), "TRIGGERED", price, alert.getCreatedAt(), now));
+            }
+        }
+
+        log.debug("Price {} for stock {} triggered alerts {}", price, tick.getStockId(), triggered);
+        priceAlertRepository.markTriggered(triggered, price, now)
+                .subscribe(
+                        updated -> { },
+                        error -> log.error("Failed to mark price alerts {} triggered: {}", triggered, error.getMessage()));
+
+        for (PriceAlert alert : fired) {
+            // A full buffer means a slow client; drop the alert for that stream only
+            streamsByUser.getOrDefault(alert.getUserId(), Set.of())
+                    .forEach(sink -> sink.tryEmitNext(alert));
+        }
+    }
+}
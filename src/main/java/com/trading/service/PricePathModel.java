@@ -0,0 +1,91 @@
+package com.trading.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+
+/**
+ * Price model behind {@link MarketSimulator}: geometric Brownian motion,
+ * optionally with Poisson-timed normal jumps in the log price. Each path
+ * draws from its own {@link SplittableRandom} seeded from the seed and the
+ * stock id, so the n-th step of a path depends only on those and the
+ * starting price.
+ */
+final class PricePathModel {
+
+    private static final BigDecimal MIN_PRICE = new BigDecimal("0.01");
+
+    private final boolean jumps;
+    private final double drift;
+    private final double volatility;
+    private final double timeStepYears;
+    private final double jumpIntensity;
+    private final double jumpMean;
+    private final double jumpVolatility;
+    private final int maxTickVolume;
+
+    /**
+     * @param timeStepYears simulated trading time between two steps, in years
+     */
+    PricePathModel(boolean jumps, double drift, double volatility, double timeStepYears,
+            double jumpIntensity, double jumpMean, double jumpVolatility, int maxTickVolume) {
+        this.jumps = jumps;
+        this.drift = drift;
+        this.volatility = volatility;
+        this.timeStepYears = timeStepYears;
+        this.jumpIntensity = jumpIntensity;
+        this.jumpMean = jumpMean;
+        this.jumpVolatility = jumpVolatility;
+        this.maxTickVolume = maxTickVolume;
+    }
+
+    Path newPath(long seed, long stockId, double startPrice) {
+        return new Path(startPrice, new SplittableRandom(seed ^ (stockId * 0x9E3779B97F4A7C15L)));
+    }
+
+    /**
+     * One stock's price path. Not thread-safe.
+     */
+    final class Path {
+
+        private final SplittableRandom random;
+        private double price;
+        private BigDecimal rounded;
+        private int lastVolume;
+
+        private Path(double price, SplittableRandom random) {
+            this.price = price;
+            this.random = random;
+            this.rounded = BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP);
+        }
+
+        /**
+         * Advance by one tick, drawing its price and volume
+         */
+        void step() {
+            double logReturn = (drift - 0.5 * volatility * volatility) * timeStepYears
+                    + volatility * Math.sqrt(timeStepYears) * random.nextGaussian();
+            if (jumps) {
+                // Always draw, so the sequence of a path does not depend on whether it jumped
+                double jump = jumpMean + jumpVolatility * random.nextGaussian();
+                if (random.nextDouble() < jumpIntensity * timeStepYears) {
+                    logReturn += jump;
+                }
+            }
+            price *= Math.exp(logReturn);
+            rounded = BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP).max(MIN_PRICE);
+            lastVolume = 1 + random.nextInt(maxTickVolume);
+        }
+
+        /**
+         * Price rounded to cents, never below one cent
+         */
+        BigDecimal price() {
+            return rounded;
+        }
+
+        int lastVolume() {
+            return lastVolume;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.trading.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-stock index of price thresholds kept sorted by threshold.
+ * RISING entries fire once the price reaches or exceeds their threshold,
+ * FALLING entries once it reaches or drops below it. Evaluating a price
+ * costs O(log n + k) for the k entries that fire; entries at the same
+ * threshold fire in insertion order.
+ */
+public class PriceTriggerIndex {
+
+    public enum Direction {
+        RISING, FALLING
+    }
+
+    private final Map<Long, Book> books = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    public void add(Long id, Long stockId, Direction direction, BigDecimal threshold) {
+        remove(id);
+
+        Book book = books.computeIfAbsent(stockId, key -> new Book());
+        synchronized (book) {
+            book.side(direction)
+                    .computeIfAbsent(threshold, key -> new LinkedHashSet<>())
+                    .add(id);
+            entries.put(id, new Entry(stockId, direction, threshold));
+        }
+    }
+
+    public boolean remove(Long id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return false;
+        }
+
+        Book book = books.get(entry.stockId());
+        synchronized (book) {
+            if (!entries.remove(id, entry)) {
+                return false;
+            }
+            TreeMap<BigDecimal, Set<Long>> side = book.side(entry.direction());
+            Set<Long> ids = side.get(entry.threshold());
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    side.remove(entry.threshold());
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Remove and return every entry for the stock crossed by the given price.
+     */
+    public List<Long> trigger(Long stockId, BigDecimal price) {
+        Book book = books.get(stockId);
+        if (book == null) {
+            return Collections.emptyList();
+        }
+
+        List<Long> fired = new ArrayList<>();
+        synchronized (book) {
+            drain(book.rising.headMap(price, true), fired);
+            drain(book.falling.tailMap(price, true), fired);
+            fired.forEach(entries::remove);
+        }
+        return fired;
+    }
+
+    public boolean contains(Long id) {
+        return entries.containsKey(id);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void drain(NavigableMap<BigDecimal, Set<Long>> crossed, List<Long> fired) {
+        if (crossed.isEmpty()) {
+            return;
+        }
+        crossed.values().forEach(fired::addAll);
+        crossed.clear();
+    }
+
+    private record Entry(Long stockId, Direction direction, BigDecimal threshold) {
+    }
+
+    private static final class Book {
+        private final TreeMap<BigDecimal, Set<Long>> rising = new TreeMap<>();
+        private final TreeMap<BigDecimal, Set<Long>> falling = new TreeMap<>();
+
+        private TreeMap<BigDecimal, Set<Long>> side(Direction direction) {
+            return direction == Direction.RISING ? rising : falling;
+        }
+    }
+}
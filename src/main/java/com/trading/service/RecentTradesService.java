@@ -0,0 +1,135 @@
+package com.trading.service;
+
+import com.trading.config.DataSourceRouting;
+import com.trading.model.Trade;
+import com.trading.repository.StockRepository;
+import com.trading.repository.TradeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves the ticker tape from memory. The last N trades are kept in one
+ * global ring buffer and one per stock, filled as trades settle and warmed
+ * from the trades table on startup. Trades settled while the warm-up is
+ * loading are held back and appended after the loaded history, skipping any
+ * the warm-up already read.
+ */
+@Slf4j
+@Service
+public class RecentTradesService {
+
+    private final TradeRepository tradeRepository;
+    private final StockRepository stockRepository;
+    private final int capacity;
+    private final TradeRingBuffer allTrades;
+    private final Map<Long, TradeRingBuffer> tradesByStock = new ConcurrentHashMap<>();
+    private final Object warmUpLock = new Object();
+    private List<Trade> pending = new ArrayList<>();
+    private volatile boolean warm;
+
+    public RecentTradesService(TradeRepository tradeRepository, StockRepository stockRepository,
+            @Value("${trading.trades.recent-capacity:256}") int capacity) {
+        this.tradeRepository = tradeRepository;
+        this.stockRepository = stockRepository;
+        this.capacity = capacity;
+        this.allTrades = new TradeRingBuffer(capacity);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Mono<List<Trade>> global = tradeRepository.findRecentTrades(capacity).collectList();
+        Mono<Map<Long, List<Trade>>> byStock = stockRepository.findAll()
+                .flatMap(stock -> tradeRepository.findPageByStockId(stock.getId(), Long.MAX_VALUE, capacity)
+                        .collectList()
+                        .filter(trades -> !trades.isEmpty())
+                        .map(trades -> Map.entry(stock.getId(), trades)), 4)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+
+        DataSourceRouting.readOnly(Mono.zip(global, byStock))
+                .subscribe(
+                        loaded -> {
+                            finishWarmUp(loaded.getT1(), loaded.getT2());
+                            log.info("Loaded {} recent trades across {} stocks",
+                                    loaded.getT1().size(), loaded.getT2().size());
+                        },
+                        error -> {
+                            log.error("Failed to load recent trades: {}", error.getMessage());
+                            finishWarmUp(List.of(), Map.of());
+                        });
+    }
+
+    public void record(Trade trade) {
+        if (!warm) {
+            synchronized (warmUpLock) {
+                if (!warm) {
+                    pending.add(trade);
+                    return;
+                }
+            }
+        }
+        add(trade);
+    }
+
+    /**
+     * Most recent trades first, at most the buffer capacity.
+     */
+    public List<Trade> latest(int limit) {
+        return allTrades.latest(limit);
+    }
+
+    public List<Trade> latestForStock(Long stockId, int limit) {
+        TradeRingBuffer buffer = tradesByStock.get(stockId);
+        return buffer != null ? buffer.latest(limit) : Collections.emptyList();
+    }
+
+    private void finishWarmUp(List<Trade> recent, Map<Long, List<Trade>> recentByStock) {
+        // Newest first from the database; replay oldest first
+        Set<Long> loadedAll = new HashSet<>();
+        for (int i = recent.size() - 1; i >= 0; i--) {
+            allTrades.add(recent.get(i));
+            loadedAll.add(recent.get(i).getId());
+        }
+        Set<Long> loadedByStock = new HashSet<>();
+        recentByStock.forEach((stockId, trades) -> {
+            TradeRingBuffer buffer = buffer(stockId);
+            for (int i = trades.size() - 1; i >= 0; i--) {
+                buffer.add(trades.get(i));
+                loadedByStock.add(trades.get(i).getId());
+            }
+        });
+
+        synchronized (warmUpLock) {
+            for (Trade trade : pending) {
+                if (!loadedAll.contains(trade.getId())) {
+                    allTrades.add(trade);
+                }
+                if (!loadedByStock.contains(trade.getId())) {
+                    buffer(trade.getStockId()).add(trade);
+                }
+            }
+            pending = null;
+            warm = true;
+        }
+    }
+
+    private void add(Trade trade) {
+        allTrades.add(trade);
+        buffer(trade.getStockId()).add(trade);
+    }
+
+    private TradeRingBuffer buffer(Long stockId) {
+        return tradesByStock.computeIfAbsent(stockId, id -> new TradeRingBuffer(capacity));
+    }
+}
@@ -0,0 +1,159 @@
+package com.trading.service;
+
+import com.trading.dto.SymbolStatistics;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Sliding 24 hour statistics for one stock, kept in 288 five-minute buckets.
+ * Volume, notional and trade count are running totals: a bucket leaving the
+ * window is subtracted in O(1) when its slot is reused. Open, high and low
+ * are folded over the bucket ring when a snapshot is taken.
+ */
+class RollingWindowStatistics {
+
+    static final long BUCKET_MILLIS = 5 * 60 * 1000L;
+    static final int BUCKETS = 288;
+
+    private final Long stockId;
+    private final Bucket[] buckets = new Bucket[BUCKETS];
+    private long headIndex = Long.MIN_VALUE;
+    private long volume;
+    private BigDecimal notional = BigDecimal.ZERO;
+    private long tradeCount;
+    private BigDecimal lastPrice;
+    private long lastPriceTime = Long.MIN_VALUE;
+
+    RollingWindowStatistics(Long stockId) {
+        this.stockId = stockId;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    synchronized void recordTrade(long timeMillis, BigDecimal price, int quantity) {
+        Bucket bucket = bucketFor(timeMillis);
+        if (bucket == null) {
+            return;
+        }
+        BigDecimal tradeNotional = price.multiply(BigDecimal.valueOf(quantity));
+        bucket.price(timeMillis, price);
+        bucket.volume += quantity;
+        bucket.notional = bucket.notional.add(tradeNotional);
+        bucket.tradeCount++;
+        volume += quantity;
+        notional = notional.add(tradeNotional);
+        tradeCount++;
+        updateLast(timeMillis, price);
+    }
+
+    synchronized void recordPrice(long timeMillis, BigDecimal price) {
+        Bucket bucket = bucketFor(timeMillis);
+        if (bucket == null) {
+            return;
+        }
+        bucket.price(timeMillis, price);
+        updateLast(timeMillis, price);
+    }
+
+    synchronized SymbolStatistics snapshot(long nowMillis) {
+        advanceTo(Math.floorDiv(nowMillis, BUCKET_MILLIS));
+
+        Bucket first = null;
+        BigDecimal high = null;
+        BigDecimal low = null;
+        for (Bucket bucket : buckets) {
+            if (bucket.open == null) {
+                continue;
+            }
+            if (first == null || bucket.openTime < first.openTime) {
+                first = bucket;
+            }
+            high = high == null || bucket.high.compareTo(high) > 0 ? bucket.high : high;
+            low = low == null || bucket.low.compareTo(low) < 0 ? bucket.low : low;
+        }
+
+        BigDecimal open = first != null ? first.open : null;
+        BigDecimal last = first != null ? lastPrice : null;
+        BigDecimal change = open != null ? last.subtract(open) : null;
+        BigDecimal changePercentage = open != null && open.signum() > 0
+                ? change.divide(open, 4, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100))
+                : null;
+        BigDecimal vwap = volume > 0
+                ? notional.divide(BigDecimal.valueOf(volume), 4, RoundingMode.HALF_UP)
+                : null;
+
+        return new SymbolStatistics(stockId, last, open, high, low, change, changePercentage, vwap,
+                volume, tradeCount, toDateTime((headIndex - BUCKETS + 1) * BUCKET_MILLIS),
+                toDateTime(nowMillis));
+    }
+
+    private Bucket bucketFor(long timeMillis) {
+        long index = Math.floorDiv(timeMillis, BUCKET_MILLIS);
+        advanceTo(index);
+        if (index <= headIndex - BUCKETS) {
+            return null; // Older than the window
+        }
+        return buckets[Math.floorMod(index, BUCKETS)];
+    }
+
+    private void advanceTo(long index) {
+        if (headIndex != Long.MIN_VALUE && index <= headIndex) {
+            return;
+        }
+        long from = headIndex == Long.MIN_VALUE || index - headIndex > BUCKETS
+                ? index - BUCKETS + 1
+                : headIndex + 1;
+        for (long i = from; i <= index; i++) {
+            Bucket expired = buckets[Math.floorMod(i, BUCKETS)];
+            volume -= expired.volume;
+            notional = notional.subtract(expired.notional);
+            tradeCount -= expired.tradeCount;
+            expired.reset();
+        }
+        headIndex = index;
+    }
+
+    private void updateLast(long timeMillis, BigDecimal price) {
+        if (timeMillis >= lastPriceTime) {
+            lastPriceTime = timeMillis;
+            lastPrice = price;
+        }
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static final class Bucket {
+        private BigDecimal open;
+        private long openTime;
+        private BigDecimal high;
+        private BigDecimal low;
+        private long volume;
+        private BigDecimal notional = BigDecimal.ZERO;
+        private long tradeCount;
+
+        private void price(long timeMillis, BigDecimal price) {
+            if (open == null || timeMillis < openTime) {
+                open = price;
+                openTime = timeMillis;
+            }
+            high = high == null || price.compareTo(high) > 0 ? price : high;
+            low = low == null || price.compareTo(low) < 0 ? price : low;
+        }
+
+        private void reset() {
+            open = null;
+            high = null;
+            low = null;
+            volume = 0;
+            notional = BigDecimal.ZERO;
+            tradeCount = 0;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.trading.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.trading.config.DataSourceRouting;
+import com.trading.repository.StockRepository;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Pre-serialized stock listings keyed by query, each tagged with the version
+ * of the stocks table it was built from. Every price update bumps the
+ * version, so a cached body is served only while no stock has changed since
+ * it was built, and its ETag stays equal until then. Bodies are kept as
+ * JSON and as Smile.
+ */
+@Service
+public class StockCatalogCache {
+
+    private final StockRepository stockRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper smileMapper;
+    private final Map<String, CachedBody> bodies = new ConcurrentHashMap<>();
+
+    // Starts at the boot time so ETags handed out before a restart never match
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public StockCatalogCache(StockRepository stockRepository, ObjectMapper objectMapper,
+            Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.stockRepository = stockRepository;
+        this.objectMapper = objectMapper;
+        this.smileMapper = objectMapperBuilder.factory(new SmileFactory()).build();
+    }
+
+    public Mono<CachedBody> getAllStocks() {
+        return cached("all", () -> stockRepository.findAll().collectList());
+    }
+
+    /**
+     * An unknown sector gives an empty list, which is not kept
+     */
+    public Mono<CachedBody> getStocksBySector(String sector) {
+        return cached("sector:" + sector, () -> stockRepository.findBySector(sector).collectList());
+    }
+
+    public Mono<CachedBody> getStockBySymbol(String symbol) {
+        return cached("symbol:" + symbol, () -> stockRepository.findBySymbol(symbol));
+    }
+
+    /**
+     * Called whenever a stock row changes. Clearing keeps lookups of symbols
+     * and sectors that were requested once from accumulating.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        bodies.clear();
+    }
+
+    private Mono<CachedBody> cached(String key, Supplier<Mono<?>> loader) {
+        return Mono.defer(() -> {
+            // Read before querying, so an update during the query leaves this body stale
+            long current = version.get();
+            CachedBody body = bodies.get(key);
+            if (body != null && body.version() == current) {
+                return Mono.just(body);
+            }
+            return DataSourceRouting.readOnly(loader.get())
+                    .flatMap(value -> Mono.fromCallable(() -> new CachedBody(current,
+                                    '"' + Long.toHexString(current) + '"',
+                                    objectMapper.writeValueAsBytes(value),
+                                    smileMapper.writeValueAsBytes(value)))
+                            .doOnNext(loaded -> {
+                                boolean empty = value instanceof Collection<?> values && values.isEmpty();
+                                if (!empty && version.get() == current) {
+                                    bodies.put(key, loaded);
+                                }
+                            }));
+        });
+    }
+
+    public record CachedBody(long version, String etag, byte[] json, byte[] smile) {
+    }
+}
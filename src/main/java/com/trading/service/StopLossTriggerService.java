@@ -0,0 +1,74 @@
+package com.trading.service;
+
+import com.trading.model.Order;
+import com.trading.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Triggers resting STOP_LOSS orders. Pending stops are held in a
+ * {@link PriceTriggerIndex}: BUY stops fire when the price rises to their stop
+ * price, SELL stops when it falls to it. Fired orders are converted into
+ * MARKET orders at the triggering price with one UPDATE per price update.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StopLossTriggerService {
+
+    private final OrderRepository orderRepository;
+    private final PriceTriggerIndex stopIndex = new PriceTriggerIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPendingStops() {
+        orderRepository.findByOrderTypeAndStatus("STOP_LOSS", "PENDING")
+                .doOnNext(this::register)
+                .count()
+                .subscribe(
+                        count -> log.info("Loaded {} pending stop orders", count),
+                        error -> log.error("Failed to load pending stop orders: {}", error.getMessage()));
+    }
+
+    public void register(Order order) {
+        if (!"STOP_LOSS".equals(order.getOrderType()) || !"PENDING".equals(order.getStatus())
+                || order.getPrice() == null) {
+            unregister(order.getId());
+            return;
+        }
+
+        PriceTriggerIndex.Direction direction = "BUY".equals(order.getSide())
+                ? PriceTriggerIndex.Direction.RISING
+                : PriceTriggerIndex.Direction.FALLING;
+        stopIndex.add(order.getId(), order.getStockId(), direction, order.getPrice());
+    }
+
+    public void unregister(Long orderId) {
+        stopIndex.remove(orderId);
+    }
+
+    /**
+     * Evaluate a price update (market tick or trade print) for a stock.
+     * Emits the number of stop orders converted into MARKET orders.
+     */
+    public Mono<Integer> onPrice(Long stockId, BigDecimal price) {
+        List<Long> triggered = stopIndex.trigger(stockId, price);
+        if (triggered.isEmpty()) {
+            return Mono.just(0);
+        }
+
+        log.debug("Price {} for stock {} triggered stop orders {}", price, stockId, triggered);
+        return orderRepository.convertStopOrdersToMarket(triggered, price, LocalDateTime.now())
+                .onErrorResume(error -> {
+                    log.error("Failed to trigger stop orders {}: {}", triggered, error.getMessage());
+                    return Mono.just(0);
+                });
+    }
+}
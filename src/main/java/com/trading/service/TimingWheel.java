@@ -0,0 +1,109 @@
+package com.trading.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel for deadline-driven expiry. Each level has 64
+ * slots; a slot at level n spans 64^n ticks. Scheduling is O(1) and each
+ * entry is cascaded at most once per level on its way down to level 0, so
+ * expiry never scans entries whose deadline is not due. Entries cannot be
+ * cancelled; callers treat an expired id whose owner is already gone as a
+ * no-op.
+ */
+public class TimingWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 6;
+
+    private final long tickMillis;
+    // Slot (level, index) at level * WHEEL_SIZE + index; null until something is placed in it
+    private final List<ArrayDeque<Entry>> slots = new ArrayList<>(Collections.nCopies(LEVELS * WHEEL_SIZE, null));
+    private final List<Long> overdue = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * Schedule an id to expire on the first advance at or after the deadline.
+     */
+    public synchronized void schedule(long id, long deadlineMillis) {
+        long deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        size++;
+        if (deadlineTick <= currentTick) {
+            overdue.add(id);
+        } else {
+            place(new Entry(id, deadlineTick));
+        }
+    }
+
+    /**
+     * Move the wheel forward to the given time and return every id whose
+     * deadline has passed.
+     */
+    public synchronized List<Long> advance(long nowMillis) {
+        List<Long> expired = new ArrayList<>(overdue);
+        overdue.clear();
+
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level);
+                }
+            }
+            ArrayDeque<Entry> due = detach(0, (int) (currentTick & SLOT_MASK));
+            if (due != null) {
+                due.forEach(entry -> expired.add(entry.id()));
+            }
+        }
+
+        size -= expired.size();
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void cascade(int level) {
+        ArrayDeque<Entry> entries = detach(level, (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK));
+        if (entries != null) {
+            entries.forEach(this::place);
+        }
+    }
+
+    private void place(Entry entry) {
+        int level = 0;
+        while (level < LEVELS - 1
+                && (entry.deadlineTick() >>> (SLOT_BITS * (level + 1))) != (currentTick >>> (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        int index = (int) ((entry.deadlineTick() >>> (SLOT_BITS * level)) & SLOT_MASK);
+        ArrayDeque<Entry> slot = slots.get(level * WHEEL_SIZE + index);
+        if (slot == null) {
+            slot = new ArrayDeque<>();
+            slots.set(level * WHEEL_SIZE + index, slot);
+        }
+        slot.add(entry);
+    }
+
+    private ArrayDeque<Entry> detach(int level, int index) {
+        return slots.set(level * WHEEL_SIZE + index, null);
+    }
+
+    private record Entry(long id, long deadlineTick) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.trading.service;
+
+import com.trading.model.Trade;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size, lock-free ring of the most recent trades. A writer claims a
+ * sequence number with one atomic increment and publishes into its slot;
+ * readers walk back from the latest sequence and skip slots that have
+ * already been reused or are not yet published.
+ */
+public class TradeRingBuffer {
+
+    private final AtomicReferenceArray<Slot> slots;
+    private final int mask;
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    public TradeRingBuffer(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two");
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    public void add(Trade trade) {
+        long sequence = nextSequence.getAndIncrement();
+        slots.set((int) (sequence & mask), new Slot(sequence, trade));
+    }
+
+    /**
+     * Up to {@code limit} trades, most recent first.
+     */
+    public List<Trade> latest(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        long end = nextSequence.get();
+        long start = Math.max(0, end - Math.min(limit, slots.length()));
+
+        List<Trade> trades = new ArrayList<>((int) (end - start));
+        for (long sequence = end - 1; sequence >= start; sequence--) {
+            Slot slot = slots.get((int) (sequence & mask));
+            if (slot != null && slot.sequence() == sequence) {
+                trades.add(slot.trade());
+            }
+        }
+        return trades;
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    private record Slot(long sequence, Trade trade) {
+    }
+}
@@ -1,5 +1,7 @@
 package com.trading.service;
 
+import com.trading.config.DataSourceRouting;
+import com.trading.dto.Fill;
 import com.trading.model.Order;
 import com.trading.model.Trade;
 import com.trading.repository.OrderRepository;
@@ -11,17 +13,28 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class TradeService {
 
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59);
+
     private final TradeRepository tradeRepository;
     private final OrderRepository orderRepository;
     private final OrderService orderService;
     private final PortfolioService portfolioService;
     private final AccountService accountService;
+    private final StopLossTriggerService stopLossTriggerService;
+    private final RecentTradesService recentTradesService;
+    private final MarketStatisticsService marketStatisticsService;
+    private final AccountEventBus accountEventBus;
 
     public Mono<Trade> executeTrade(Long buyOrderId, Long sellOrderId) {
         log.debug("Executing trade between buy order {} and sell order {}", buyOrderId, sellOrderId);
@@ -43,28 +56,31 @@ public class TradeService {
                         return Mono.error(new IllegalStateException("Orders must be in PENDING status"));
                     }
 
-                    // Determine trade quantity and price
-                    int tradeQuantity = Math.min(buyOrder.getQuantity(), sellOrder.getQuantity());
+                    // Determine trade quantity and price; the larger order stays partially filled
+                    int tradeQuantity = Math.min(remainingQuantity(buyOrder), remainingQuantity(sellOrder));
                     BigDecimal tradePrice = sellOrder.getPrice() != null ? sellOrder.getPrice() : buyOrder.getPrice();
 
                     // Create trade
                     Trade trade = new Trade(buyOrderId, sellOrderId, buyOrder.getStockId(), tradeQuantity, tradePrice);
 
-                    return tradeRepository.save(trade)
-                            .flatMap(savedTrade -> {
-                                // Update order statuses
-                                return Mono.zip(
-                                        orderService.updateOrderStatus(buyOrderId, "EXECUTED"),
-                                        orderService.updateOrderStatus(sellOrderId, "EXECUTED"))
-                                        .then(Mono.just(savedTrade));
-                            })
+                    // Apply fills to both orders first; a rejected fill leaves no trade behind
+                    return orderService.recordFills(buyOrderId, sellOrderId, tradeQuantity)
+                            .then(Mono.defer(() -> tradeRepository.save(trade)))
                             .flatMap(savedTrade -> {
                                 // Update portfolios
                                 return Mono.zip(
-                                        portfolioService.updateHoldingAfterBuy(buyOrder.getAccountId(),
+                                        portfolioService.updateHoldingAfterBuy(savedTrade.getId(),
+                                                buyOrder.getAccountId(),
                                                 buyOrder.getStockId(), tradeQuantity, tradePrice),
-                                        portfolioService.updateHoldingAfterSell(sellOrder.getAccountId(),
+                                        portfolioService.updateHoldingAfterSell(savedTrade.getId(),
+                                                sellOrder.getAccountId(),
                                                 sellOrder.getStockId(), tradeQuantity, tradePrice))
+                                        .doOnNext(holdings -> {
+                                            accountEventBus.publish(buyOrder.getAccountId(),
+                                                    AccountEventBus.HOLDING_CHANGED, holdings.getT1());
+                                            accountEventBus.publish(sellOrder.getAccountId(),
+                                                    AccountEventBus.HOLDING_CHANGED, holdings.getT2());
+                                        })
                                         .then(Mono.just(savedTrade));
                             })
                             .flatMap(savedTrade -> {
@@ -82,7 +98,12 @@ public class TradeService {
                                             return accountService.updateBalance(sellAccount.getId(), newSellBalance);
                                         })
                                         .then(Mono.just(savedTrade));
-                            });
+                            })
+                            .doOnNext(recentTradesService::record)
+                            .doOnNext(marketStatisticsService::recordTrade)
+                            .flatMap(savedTrade -> stopLossTriggerService
+                                    .onPrice(savedTrade.getStockId(), savedTrade.getPrice())
+                                    .thenReturn(savedTrade));
                 });
     }
 
@@ -90,46 +111,134 @@ public class TradeService {
         return tradeRepository.findById(id);
     }
 
-    public Flux<Trade> findByStockId(Long stockId) {
-        return tradeRepository.findByStockId(stockId);
+    public Flux<Trade> findByStockId(Long stockId, Long before, int limit) {
+        return DataSourceRouting.readOnly(
+                tradeRepository.findPageByStockId(stockId, Paging.before(before), Paging.limit(limit)));
+    }
+
+    /**
+     * Fills for an account within [from, to), newest first. Either bound may
+     * be omitted. The next page starts after the fill with trade id
+     * {@code before} and side {@code beforeSide}; without a side it starts
+     * after every fill of that trade.
+     */
+    public Flux<Fill> findFillsByAccount(Long accountId, LocalDateTime from, LocalDateTime to,
+            Long before, String beforeSide, int limit) {
+        if (beforeSide != null && !"BUY".equals(beforeSide) && !"SELL".equals(beforeSide)) {
+            return Flux.error(new IllegalArgumentException("beforeSide must be BUY or SELL"));
+        }
+
+        return DataSourceRouting.readOnly(tradeRepository.findFillsByAccountId(
+                accountId,
+                from != null ? from : EARLIEST,
+                to != null ? to : LATEST,
+                Paging.before(before),
+                // SELL sorts last within a trade, so it skips the whole trade
+                beforeSide != null ? beforeSide : "SELL",
+                Paging.limit(limit)));
     }
 
     public Flux<Trade> findRecentTrades(int limit) {
-        return tradeRepository.findRecentTrades(limit);
+        return Flux.fromIterable(recentTradesService.latest(limit));
+    }
+
+    public Flux<Trade> findRecentTradesForStock(Long stockId, int limit) {
+        return Flux.fromIterable(recentTradesService.latestForStock(stockId, limit));
     }
 
     /**
      * Simple matching engine - matches pending buy and sell orders for the same
-     * stock
+     * stock. IOC and FOK orders left unfilled by the pass are cancelled.
      */
     public Flux<Trade> matchOrders(Long stockId) {
         log.debug("Running matching engine for stock: {}", stockId);
 
+        LocalDateTime passStart = LocalDateTime.now();
         return orderRepository.findByStockIdAndStatus(stockId, "PENDING")
                 .collectList()
                 .flatMapMany(orders -> {
-                    // Separate buy and sell orders
+                    // Separate buy and sell orders; untriggered stops do not rest in the book
                     var buyOrders = orders.stream()
                             .filter(o -> "BUY".equals(o.getSide()))
+                            .filter(o -> !"STOP_LOSS".equals(o.getOrderType()))
                             .toList();
                     var sellOrders = orders.stream()
                             .filter(o -> "SELL".equals(o.getSide()))
+                            .filter(o -> !"STOP_LOSS".equals(o.getOrderType()))
                             .toList();
 
-                    // Match orders
+                    // Match one buy at a time against every sell in turn until it is filled, tracking
+                    // what each order has left in this pass so no order is filled twice
+                    Map<Long, Integer> remaining = new HashMap<>();
+                    orders.forEach(order -> remaining.put(order.getId(), remainingQuantity(order)));
+
                     return Flux.fromIterable(buyOrders)
-                            .flatMap(buyOrder -> Flux.fromIterable(sellOrders)
-                                    .filter(sellOrder -> canMatch(buyOrder, sellOrder))
-                                    .next()
-                                    .flatMap(sellOrder -> executeTrade(buyOrder.getId(), sellOrder.getId())));
+                            .concatMap(buyOrder -> Flux.fromIterable(sellOrders)
+                                    // Checked when the sell comes up, after the previous trades of this buy
+                                    .concatMap(sellOrder -> Mono.defer(() -> !canMatch(buyOrder, sellOrder, remaining)
+                                            ? Mono.<Trade>empty()
+                                            : executeTrade(buyOrder.getId(), sellOrder.getId())
+                                                    .doOnNext(trade -> {
+                                                        remaining.merge(buyOrder.getId(), -trade.getQuantity(),
+                                                                Integer::sum);
+                                                        remaining.merge(sellOrder.getId(), -trade.getQuantity(),
+                                                                Integer::sum);
+                                                    })
+                                                    .onErrorResume(IllegalStateException.class, error -> {
+                                                        // Filled or cancelled outside this pass; leave it for the next one
+                                                        log.debug("Skipping match of {} and {}: {}",
+                                                                buyOrder.getId(), sellOrder.getId(), error.getMessage());
+                                                        return Mono.empty();
+                                                    }))))
+                            .concatWith(Mono.defer(() -> cancelUnfilledImmediateOrders(stockId, passStart, orders))
+                                    .then(Mono.empty()));
                 });
     }
 
-    private boolean canMatch(Order buyOrder, Order sellOrder) {
+    private Mono<Integer> cancelUnfilledImmediateOrders(Long stockId, LocalDateTime passStart,
+            List<Order> passOrders) {
+        List<Long> immediateIds = passOrders.stream()
+                .filter(order -> "IOC".equals(order.getTimeInForce()) || "FOK".equals(order.getTimeInForce()))
+                .map(Order::getId)
+                .toList();
+        if (immediateIds.isEmpty()) {
+            return Mono.just(0);
+        }
+
+        return orderRepository.cancelUnfilledImmediateOrders(stockId, passStart, LocalDateTime.now())
+                .doOnNext(cancelled -> log.debug("Cancelled {} unfilled IOC/FOK orders for stock {}",
+                        cancelled, stockId))
+                .flatMap(cancelled -> cancelled == 0
+                        ? Mono.just(cancelled)
+                        : orderRepository.findAllById(immediateIds)
+                                .filter(order -> "CANCELLED".equals(order.getStatus()))
+                                .doOnNext(accountEventBus::publishOrder)
+                                .then(Mono.just(cancelled)));
+    }
+
+    private boolean canMatch(Order buyOrder, Order sellOrder, Map<Long, Integer> remaining) {
+        int buyRemaining = remaining.get(buyOrder.getId());
+        int sellRemaining = remaining.get(sellOrder.getId());
+        if (buyRemaining <= 0 || sellRemaining <= 0) {
+            return false;
+        }
+
+        // Fill-or-kill orders only match a counterparty that fills them entirely
+        if ("FOK".equals(buyOrder.getTimeInForce()) && sellRemaining < buyRemaining) {
+            return false;
+        }
+        if ("FOK".equals(sellOrder.getTimeInForce()) && buyRemaining < sellRemaining) {
+            return false;
+        }
+
         // Simple matching logic: prices must be compatible
         if (buyOrder.getPrice() == null || sellOrder.getPrice() == null) {
             return true; // Market orders can match
         }
         return buyOrder.getPrice().compareTo(sellOrder.getPrice()) >= 0;
     }
+
+    private static int remainingQuantity(Order order) {
+        return order.getQuantity() - order.getFilledQuantity();
+    }
 }
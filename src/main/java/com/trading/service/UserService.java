@@ -4,7 +4,6 @@ import com.trading.model.User;
 import com.trading.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
@@ -14,7 +13,7 @@ import reactor.core.publisher.Mono;
 public class UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
 
     public Mono<User> registerUser(String username, String email, String password) {
         log.debug("Registering new user: {}", username);
@@ -22,10 +21,8 @@ public class UserService {
         return userRepository.findByUsernameOrEmail(username, email)
                 .flatMap(existingUser -> Mono.<User>error(
                         new IllegalArgumentException("Username or email already exists")))
-                .switchIfEmpty(Mono.defer(() -> {
-                    User newUser = new User(username, email, passwordEncoder.encode(password));
-                    return userRepository.save(newUser);
-                }));
+                .switchIfEmpty(Mono.defer(() -> passwordHasher.encode(password)
+                        .flatMap(hash -> userRepository.save(new User(username, email, hash)))));
     }
 
     public Mono<User> findById(Long id) {
@@ -42,7 +39,7 @@ public class UserService {
 
     public Mono<Boolean> validateCredentials(String username, String password) {
         return userRepository.findByUsername(username)
-                .map(user -> passwordEncoder.matches(password, user.getPassword()))
+                .flatMap(user -> passwordHasher.matches(password, user.getPassword()))
                 .defaultIfEmpty(false);
     }
 }
@@ -1,5 +1,7 @@
 package com.trading.service;
 
+import com.trading.config.DataSourceRouting;
+import com.trading.model.MarketData;
 import com.trading.model.Stock;
 import com.trading.model.Watchlist;
 import com.trading.model.WatchlistItem;
@@ -12,6 +14,10 @@ import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -20,6 +26,7 @@ public class WatchlistService {
     private final WatchlistRepository watchlistRepository;
     private final WatchlistItemRepository watchlistItemRepository;
     private final StockRepository stockRepository;
+    private final WatchlistStreamService watchlistStreamService;
 
     public Mono<Watchlist> createWatchlist(Long userId, String name) {
         log.debug("Creating watchlist '{}' for user {}", name, userId);
@@ -29,7 +36,7 @@ public class WatchlistService {
     }
 
     public Flux<Watchlist> getUserWatchlists(Long userId) {
-        return watchlistRepository.findByUserId(userId);
+        return DataSourceRouting.readOnly(watchlistRepository.findByUserId(userId));
     }
 
     public Mono<Watchlist> getWatchlistById(Long id) {
@@ -46,23 +53,63 @@ public class WatchlistService {
                 .then(Mono.defer(() -> {
                     WatchlistItem item = new WatchlistItem(watchlistId, stockId);
                     return watchlistItemRepository.save(item);
-                }));
+                }))
+                .doOnNext(saved -> watchlistStreamService.stockAdded(watchlistId, stockId));
+    }
+
+    /**
+     * Add many stocks with one INSERT; unknown stocks and stocks already on
+     * the watchlist are skipped. Emits the watchlist's stocks afterwards.
+     * Open streams start watching only the stocks that were inserted.
+     */
+    public Flux<Stock> addStocksToWatchlist(Long watchlistId, Collection<Long> stockIds) {
+        log.debug("Adding {} stocks to watchlist {}", stockIds.size(), watchlistId);
+
+        Set<Long> requested = Set.copyOf(stockIds);
+        return watchlistRepository.findById(watchlistId)
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("Watchlist not found")))
+                .flatMap(watchlist -> watchlistItemRepository.findByWatchlistId(watchlistId)
+                        .map(WatchlistItem::getStockId)
+                        .collect(Collectors.toSet()))
+                .flatMap(existing -> watchlistItemRepository.addStocks(watchlistId, requested)
+                        .then(stockRepository.findByWatchlistId(watchlistId).collectList())
+                        .doOnNext(stocks -> stocks.stream()
+                                .map(Stock::getId)
+                                .filter(stockId -> requested.contains(stockId) && !existing.contains(stockId))
+                                .forEach(stockId -> watchlistStreamService.stockAdded(watchlistId, stockId))))
+                .flatMapIterable(stocks -> stocks);
+    }
+
+    public Mono<Integer> removeStocksFromWatchlist(Long watchlistId, Collection<Long> stockIds) {
+        log.debug("Removing {} stocks from watchlist {}", stockIds.size(), watchlistId);
+
+        return watchlistItemRepository.removeStocks(watchlistId, stockIds)
+                .doOnNext(removed -> stockIds.forEach(stockId -> watchlistStreamService.stockRemoved(watchlistId, stockId)));
     }
 
     public Mono<Void> removeStockFromWatchlist(Long watchlistId, Long stockId) {
         log.debug("Removing stock {} from watchlist {}", stockId, watchlistId);
 
-        return watchlistItemRepository.deleteByWatchlistIdAndStockId(watchlistId, stockId);
+        return watchlistItemRepository.deleteByWatchlistIdAndStockId(watchlistId, stockId)
+                .doOnSuccess(done -> watchlistStreamService.stockRemoved(watchlistId, stockId));
     }
 
     public Flux<Stock> getWatchlistStocks(Long watchlistId) {
-        return watchlistItemRepository.findByWatchlistId(watchlistId)
-                .flatMap(item -> stockRepository.findById(item.getStockId()));
+        return DataSourceRouting.readOnly(stockRepository.findByWatchlistId(watchlistId));
+    }
+
+    /**
+     * Price ticks for the stocks currently on the watchlist
+     */
+    public Flux<MarketData> streamWatchlist(Long watchlistId) {
+        return watchlistRepository.findById(watchlistId)
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("Watchlist not found")))
+                .flatMapMany(watchlist -> watchlistStreamService.streamWatchlist(watchlistId));
     }
 
     public Mono<Void> deleteWatchlist(Long watchlistId) {
-        return watchlistItemRepository.findByWatchlistId(watchlistId)
-                .flatMap(item -> watchlistItemRepository.delete(item))
-                .then(watchlistRepository.deleteById(watchlistId));
+        return watchlistItemRepository.deleteAllByWatchlistId(watchlistId)
+                .then(watchlistRepository.deleteById(watchlistId))
+                .doOnSuccess(done -> watchlistStreamService.watchlistDeleted(watchlistId));
     }
 }
@@ -0,0 +1,139 @@
+package com.trading.service;
+
+import com.trading.model.MarketData;
+import com.trading.repository.WatchlistItemRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streams price ticks for the stocks on a watchlist. Open streams are kept
+ * in an inverted index from stock id to stream, so a tick is only offered to
+ * the streams watching that stock. The index follows watchlist edits while
+ * streams are open.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WatchlistStreamService {
+
+    private static final int STREAM_BUFFER = 256;
+
+    private final MarketDataService marketDataService;
+    private final WatchlistItemRepository watchlistItemRepository;
+    private final Map<Long, Set<Stream>> streamsByStock = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Stream>> streamsByWatchlist = new ConcurrentHashMap<>();
+    private Disposable ticks;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        ticks = marketDataService.ticks().subscribe(this::route);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticks != null) {
+            ticks.dispose();
+        }
+    }
+
+    public Flux<MarketData> streamWatchlist(Long watchlistId) {
+        return Flux.defer(() -> {
+            Stream stream = new Stream(watchlistId);
+            // Register before loading items so edits made meanwhile are not lost
+            add(streamsByWatchlist, watchlistId, stream);
+
+            return watchlistItemRepository.findByWatchlistId(watchlistId)
+                    .doOnNext(item -> watch(stream, item.getStockId()))
+                    .thenMany(stream.sink.asFlux())
+                    .doFinally(signal -> close(stream));
+        });
+    }
+
+    public void stockAdded(Long watchlistId, Long stockId) {
+        streamsByWatchlist.getOrDefault(watchlistId, Set.of())
+                .forEach(stream -> watch(stream, stockId));
+    }
+
+    public void stockRemoved(Long watchlistId, Long stockId) {
+        streamsByWatchlist.getOrDefault(watchlistId, Set.of())
+                .forEach(stream -> unwatch(stream, stockId));
+    }
+
+    /**
+     * Complete every open stream of a deleted watchlist
+     */
+    public void watchlistDeleted(Long watchlistId) {
+        Set<Stream> streams = streamsByWatchlist.remove(watchlistId);
+        if (streams != null) {
+            streams.forEach(stream -> stream.sink.tryEmitComplete());
+        }
+    }
+
+    private void route(MarketData tick) {
+        Set<Stream> streams = streamsByStock.get(tick.getStockId());
+        if (streams == null) {
+            return;
+        }
+        for (Stream stream : streams) {
+            // A full buffer means a slow client; drop the tick for that stream only
+            stream.sink.tryEmitNext(tick);
+        }
+    }
+
+    private void watch(Stream stream, Long stockId) {
+        if (stream.stockIds.add(stockId)) {
+            add(streamsByStock, stockId, stream);
+        }
+    }
+
+    private void unwatch(Stream stream, Long stockId) {
+        if (stream.stockIds.remove(stockId)) {
+            remove(streamsByStock, stockId, stream);
+        }
+    }
+
+    private void close(Stream stream) {
+        Set.copyOf(stream.stockIds).forEach(stockId -> unwatch(stream, stockId));
+        remove(streamsByWatchlist, stream.watchlistId, stream);
+    }
+
+    // Sets are only changed inside compute so an emptied set is never written to after removal
+    private static void add(Map<Long, Set<Stream>> index, Long key, Stream stream) {
+        index.compute(key, (id, streams) -> {
+            Set<Stream> updated = streams != null ? streams : ConcurrentHashMap.newKeySet();
+            updated.add(stream);
+            return updated;
+        });
+    }
+
+    private static void remove(Map<Long, Set<Stream>> index, Long key, Stream stream) {
+        index.computeIfPresent(key, (id, streams) -> {
+            streams.remove(stream);
+            return streams.isEmpty() ? null : streams;
+        });
+    }
+
+    private static final class Stream {
+
+        private final Long watchlistId;
+        private final Set<Long> stockIds = ConcurrentHashMap.newKeySet();
+        private final Sinks.Many<MarketData> sink =
+                Sinks.many().unicast().onBackpressureBuffer(Queues.<MarketData>get(STREAM_BUFFER).get());
+
+        private Stream(Long watchlistId) {
+            this.watchlistId = watchlistId;
+        }
+    }
+}
@@ -83,6 +83,8 @@ INSERT INTO orders (account_id, stock_id, order_type, side, quantity, price, sta
 (9, 12, 'LIMIT', 'BUY', 90, 111.00, 'CANCELLED'),
 (10, 13, 'LIMIT', 'SELL', 60, 159.00, 'CANCELLED');
 
+UPDATE orders SET filled_quantity = quantity WHERE status = 'EXECUTED';
+
 -- Insert sample trades (matching executed orders)
 INSERT INTO trades (buy_order_id, sell_order_id, stock_id, quantity, price) VALUES
 (11, 12, 14, 100, 177.50),
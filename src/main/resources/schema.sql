@@ -39,12 +39,24 @@ CREATE TABLE IF NOT EXISTS orders (
     quantity INT NOT NULL,
     price DECIMAL(10, 2),
     status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    time_in_force VARCHAR(10) NOT NULL DEFAULT 'GTC',
+    expires_at TIMESTAMP,
+    filled_quantity INT NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    -- Queue position; reset when an amendment sends the order to the back of the queue
+    queued_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (account_id) REFERENCES accounts(id),
     FOREIGN KEY (stock_id) REFERENCES stocks(id)
 );
 
+-- Columns added after the first release; brings databases created before them up to date
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS time_in_force VARCHAR(10) NOT NULL DEFAULT 'GTC';
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS expires_at TIMESTAMP;
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS filled_quantity INT NOT NULL DEFAULT 0;
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS queued_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP;
+UPDATE orders SET queued_at = created_at WHERE queued_at IS NULL;
+
 -- Trades table
 CREATE TABLE IF NOT EXISTS trades (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
@@ -54,11 +66,18 @@ CREATE TABLE IF NOT EXISTS trades (
     quantity INT NOT NULL,
     price DECIMAL(10, 2) NOT NULL,
     executed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    buy_holding_applied BOOLEAN NOT NULL DEFAULT TRUE,
+    sell_holding_applied BOOLEAN NOT NULL DEFAULT TRUE,
     FOREIGN KEY (buy_order_id) REFERENCES orders(id),
     FOREIGN KEY (sell_order_id) REFERENCES orders(id),
     FOREIGN KEY (stock_id) REFERENCES stocks(id)
 );
 
+-- Whether each side's holding change is stored in portfolio_holdings; trades
+-- from before write-behind holdings count as applied
+ALTER TABLE trades ADD COLUMN IF NOT EXISTS buy_holding_applied BOOLEAN NOT NULL DEFAULT TRUE;
+ALTER TABLE trades ADD COLUMN IF NOT EXISTS sell_holding_applied BOOLEAN NOT NULL DEFAULT TRUE;
+
 -- Portfolio Holdings table
 CREATE TABLE IF NOT EXISTS portfolio_holdings (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
@@ -93,6 +112,21 @@ CREATE TABLE IF NOT EXISTS watchlist_items (
     UNIQUE (watchlist_id, stock_id)
 );
 
+-- Price Alerts table
+CREATE TABLE IF NOT EXISTS price_alerts (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    stock_id BIGINT NOT NULL,
+    direction VARCHAR(10) NOT NULL,
+    threshold DECIMAL(10, 2) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE',
+    triggered_price DECIMAL(10, 2),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    triggered_at TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id),
+    FOREIGN KEY (stock_id) REFERENCES stocks(id)
+);
+
 -- Market Data table
 CREATE TABLE IF NOT EXISTS market_data (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
@@ -103,11 +137,38 @@ CREATE TABLE IF NOT EXISTS market_data (
     FOREIGN KEY (stock_id) REFERENCES stocks(id)
 );
 
+-- OHLCV bars rolled up from market data during bulk ingest
+CREATE TABLE IF NOT EXISTS price_bars (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    stock_id BIGINT NOT NULL,
+    interval_seconds INT NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    open_price DECIMAL(10, 2) NOT NULL,
+    high_price DECIMAL(10, 2) NOT NULL,
+    low_price DECIMAL(10, 2) NOT NULL,
+    close_price DECIMAL(10, 2) NOT NULL,
+    volume BIGINT NOT NULL,
+    -- Times of the first and last row in the bar, so bars of the same bucket can be merged
+    opened_at TIMESTAMP NOT NULL,
+    closed_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (stock_id) REFERENCES stocks(id),
+    UNIQUE (stock_id, interval_seconds, bucket_start)
+);
+
 -- Create indexes for better query performance
 CREATE INDEX IF NOT EXISTS idx_accounts_user_id ON accounts(user_id);
-CREATE INDEX IF NOT EXISTS idx_orders_account_id ON orders(account_id);
-CREATE INDEX IF NOT EXISTS idx_orders_status ON orders(status);
-CREATE INDEX IF NOT EXISTS idx_trades_stock_id ON trades(stock_id);
+CREATE INDEX IF NOT EXISTS idx_orders_account_id_id ON orders(account_id, id);
+CREATE INDEX IF NOT EXISTS idx_orders_status_id ON orders(status, id);
+CREATE INDEX IF NOT EXISTS idx_orders_stock_status ON orders(stock_id, status);
+CREATE INDEX IF NOT EXISTS idx_orders_status_expires_at ON orders(status, expires_at);
+CREATE INDEX IF NOT EXISTS idx_orders_created_at ON orders(created_at);
+CREATE INDEX IF NOT EXISTS idx_trades_stock_id_id ON trades(stock_id, id);
+CREATE INDEX IF NOT EXISTS idx_trades_executed_at ON trades(executed_at);
+CREATE INDEX IF NOT EXISTS idx_trades_buy_order_id ON trades(buy_order_id);
+CREATE INDEX IF NOT EXISTS idx_trades_sell_order_id ON trades(sell_order_id);
 CREATE INDEX IF NOT EXISTS idx_portfolio_account_id ON portfolio_holdings(account_id);
-CREATE INDEX IF NOT EXISTS idx_market_data_stock_id ON market_data(stock_id);
+CREATE INDEX IF NOT EXISTS idx_market_data_stock_id_id ON market_data(stock_id, id);
+CREATE INDEX IF NOT EXISTS idx_market_data_stock_id_timestamp ON market_data(stock_id, timestamp);
 CREATE INDEX IF NOT EXISTS idx_watchlist_user_id ON watchlists(user_id);
+CREATE INDEX IF NOT EXISTS idx_price_alerts_user_id ON price_alerts(user_id);
+CREATE INDEX IF NOT EXISTS idx_price_alerts_status ON price_alerts(status);
@@ -0,0 +1,85 @@
+package com.trading.config;
+
+import com.trading.repository.StockRepository;
+import com.trading.service.PortfolioService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///routing_write?options=DB_CLOSE_DELAY=-1",
+        "trading.datasource.read.url=r2dbc:h2:mem:///routing_read?options=DB_CLOSE_DELAY=-1",
+        "trading.datasource.read.init-scripts=classpath:schema.sql",
+        "trading.simulator.enabled=false"
+})
+class DataSourceRoutingTest {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Test
+    void readOnly_routesQueriesToReadDatabase() {
+        // Arrange
+        Mono<String> database = databaseClient.sql("SELECT DATABASE()")
+                .map(row -> row.get(0, String.class))
+                .one();
+
+        // Act
+        String written = database.block();
+        String read = DataSourceRouting.readOnly(database).block();
+
+        // Assert
+        assertEquals("ROUTING_WRITE", written);
+        assertEquals("ROUTING_READ", read);
+    }
+
+    @Test
+    void readOnly_repositoryQueries_seeOnlyReadDatabase() {
+        // Arrange: sample data is loaded into the primary only
+
+        // Act
+        Long primaryStocks = stockRepository.count().block();
+        Long readStocks = DataSourceRouting.readOnly(stockRepository.count()).block();
+
+        // Assert
+        assertTrue(primaryStocks > 0);
+        assertEquals(0L, readStocks);
+    }
+
+    @Test
+    void primary_insideReadOnly_routesQueriesToWriteDatabase() {
+        // Arrange
+        Mono<String> database = databaseClient.sql("SELECT DATABASE()")
+                .map(row -> row.get(0, String.class))
+                .one();
+
+        // Act
+        String pinned = DataSourceRouting.readOnly(DataSourceRouting.primary(database)).block();
+
+        // Assert
+        assertEquals("ROUTING_WRITE", pinned);
+    }
+
+    @Test
+    void getHoldings_readsFlushedHoldingsFromPrimary() {
+        // Arrange: the read database has no holdings at all
+
+        // Act
+        Long holdings = portfolioService.getHoldings(1L).count().block();
+        Long details = DataSourceRouting.readOnly(portfolioService.getHoldingDetails(1L).count()).block();
+
+        // Assert
+        assertTrue(holdings > 0);
+        assertEquals(holdings, details);
+    }
+}
@@ -0,0 +1,61 @@
+package com.trading.filter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+    private static final long START = 5_000 * SECOND;
+
+    @Test
+    void tryAcquire_withinBurst_admitsThenRejects() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(10, 3);
+
+        // Act
+        long first = bucket.tryAcquire(START);
+        long second = bucket.tryAcquire(START);
+        long third = bucket.tryAcquire(START);
+        long fourth = bucket.tryAcquire(START);
+
+        // Assert
+        assertEquals(0, first);
+        assertEquals(0, second);
+        assertEquals(0, third);
+        assertEquals(SECOND / 10, fourth);
+    }
+
+    @Test
+    void tryAcquire_afterEmissionInterval_admitsAgain() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(10, 1);
+        bucket.tryAcquire(START);
+
+        // Act
+        long early = bucket.tryAcquire(START + SECOND / 20);
+        long onTime = bucket.tryAcquire(START + SECOND / 10);
+
+        // Assert
+        assertTrue(early > 0);
+        assertEquals(0, onTime);
+    }
+
+    @Test
+    void isIdle_onceRefilled_returnsTrue() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(10, 5);
+        bucket.tryAcquire(START);
+        bucket.tryAcquire(START);
+
+        // Act & Assert
+        assertFalse(bucket.isIdle(START + SECOND / 10));
+        assertTrue(bucket.isIdle(START + SECOND / 5));
+    }
+
+    @Test
+    void constructor_withNonPositiveRate_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+    }
+}
@@ -0,0 +1,61 @@
+package com.trading.service;
+
+import com.trading.dto.AccountEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountEventBusTest {
+
+    private final AccountEventBus bus = new AccountEventBus(16, Duration.ofMinutes(10));
+
+    @AfterEach
+    void tearDown() {
+        bus.stop();
+    }
+
+    @Test
+    void evictIdleChannels_keepsChannelsWithSubscribers() {
+        // Arrange
+        bus.publish(1L, AccountEventBus.BALANCE_CHANGED, "a");
+        Disposable subscription = bus.subscribe(2L, null).subscribe();
+
+        // Act
+        bus.evictIdleChannels(System.nanoTime() + Duration.ofMinutes(11).toNanos());
+
+        // Assert
+        assertEquals(1, bus.channelCount(), "Only the subscribed channel is kept");
+        subscription.dispose();
+        bus.evictIdleChannels(System.nanoTime() + Duration.ofMinutes(11).toNanos());
+        assertEquals(0, bus.channelCount());
+    }
+
+    @Test
+    void subscribe_afterEviction_startsWithResync() {
+        // Arrange
+        bus.publish(1L, AccountEventBus.BALANCE_CHANGED, "a");
+        bus.evictIdleChannels(System.nanoTime() + Duration.ofMinutes(11).toNanos());
+
+        // Act & Assert
+        StepVerifier.create(bus.subscribe(1L, 1L).take(1))
+                .assertNext(event -> assertEquals(AccountEventBus.RESYNC_REQUIRED, event.getType()))
+                .verifyComplete();
+    }
+
+    @Test
+    void subscribe_withinReplay_resumesAfterSequence() {
+        // Arrange
+        bus.publish(1L, AccountEventBus.BALANCE_CHANGED, "a");
+        bus.publish(1L, AccountEventBus.BALANCE_CHANGED, "b");
+
+        // Act & Assert
+        StepVerifier.create(bus.subscribe(1L, 1L).take(1).map(AccountEvent::getData))
+                .expectNext("b")
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,156 @@
+package com.trading.service;
+
+import com.trading.dto.ChartPoint;
+import com.trading.model.MarketData;
+import com.trading.service.ChartDownsampling.Mode;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChartDownsamplingTest {
+
+    private static final LocalDateTime TEN = LocalDateTime.of(2026, 1, 1, 10, 0);
+
+    @Test
+    void downsample_lttb_keepsFirstAndLastTickWithinPointCount() {
+        // Arrange
+        List<MarketData> ticks = new ArrayList<>();
+        for (int second = 0; second < 1000; second++) {
+            ticks.add(tick(second, String.valueOf(100 + second % 7)));
+        }
+
+        // Act
+        List<ChartPoint> points = downsample(ticks, 1000, 20, Mode.LTTB);
+
+        // Assert
+        assertTrue(points.size() <= 20, "At most the requested number of points");
+        assertTrue(points.size() >= 3);
+        assertEquals(point(ticks.get(0)), points.get(0));
+        assertEquals(point(ticks.get(999)), points.get(points.size() - 1));
+        assertInTimeOrder(points);
+    }
+
+    @Test
+    void downsample_lttbTailBucketWithSingleTick_endsWithThatTick() {
+        // Arrange: points = 5 gives three 100-second buckets; the last holds one tick
+        List<MarketData> ticks = List.of(
+                tick(0, "100"), tick(20, "104"), tick(40, "101"),
+                tick(120, "99"), tick(150, "103"),
+                tick(290, "102"));
+
+        // Act
+        List<ChartPoint> points = downsample(ticks, 300, 5, Mode.LTTB);
+
+        // Assert
+        assertEquals(List.of(
+                point(ticks.get(0)), point(ticks.get(1)), point(ticks.get(3)), point(ticks.get(5))), points);
+    }
+
+    @Test
+    void downsample_lttbFirstAndOneOtherTick_keepsBoth() {
+        // Arrange
+        List<MarketData> ticks = List.of(tick(0, "100"), tick(290, "102"));
+
+        // Act
+        List<ChartPoint> points = downsample(ticks, 300, 5, Mode.LTTB);
+
+        // Assert
+        assertEquals(List.of(point(ticks.get(0)), point(ticks.get(1))), points);
+    }
+
+    @Test
+    void downsample_emptyBuckets_produceNoPoints() {
+        // Arrange: points = 10 gives five 60-second min/max buckets; only the first and last have ticks
+        List<MarketData> ticks = List.of(
+                tick(5, "100"), tick(10, "90"),
+                tick(250, "95"), tick(260, "97"));
+
+        // Act
+        List<ChartPoint> minMax = downsample(ticks, 300, 10, Mode.MIN_MAX);
+        List<ChartPoint> lttb = downsample(ticks, 300, 10, Mode.LTTB);
+
+        // Assert
+        assertEquals(ticks.stream().map(ChartDownsamplingTest::point).toList(), minMax);
+        assertEquals(ticks.stream().map(ChartDownsamplingTest::point).toList(), lttb);
+    }
+
+    @Test
+    void downsample_minMax_emitsLowAndHighInTimeOrder() {
+        // Arrange: points = 4 gives two 60-second buckets
+        List<MarketData> ticks = List.of(
+                tick(0, "100"), tick(10, "110"), tick(20, "105"), tick(30, "95"), tick(40, "100"),
+                tick(60, "100"), tick(70, "90"), tick(80, "120"), tick(90, "100"));
+
+        // Act
+        List<ChartPoint> points = downsample(ticks, 120, 4, Mode.MIN_MAX);
+
+        // Assert
+        assertEquals(List.of(
+                point(ticks.get(1)), point(ticks.get(3)),
+                point(ticks.get(6)), point(ticks.get(7))), points);
+    }
+
+    @Test
+    void downsample_minMaxFlatBucket_emitsOnePoint() {
+        // Act
+        List<ChartPoint> points = downsample(List.of(tick(0, "100")), 60, 4, Mode.MIN_MAX);
+
+        // Assert
+        assertEquals(List.of(point(tick(0, "100"))), points);
+    }
+
+    @Test
+    void downsample_minMax_staysWithinPointCount() {
+        // Arrange
+        List<MarketData> ticks = new ArrayList<>();
+        for (int second = 0; second < 1000; second++) {
+            ticks.add(tick(second, String.valueOf(100 + (second * 37) % 11)));
+        }
+
+        // Act
+        List<ChartPoint> points = downsample(ticks, 1000, 15, Mode.MIN_MAX);
+
+        // Assert
+        assertTrue(points.size() <= 15, "At most the requested number of points");
+        assertInTimeOrder(points);
+    }
+
+    @Test
+    void downsample_pointsOutOfBounds_throwsIllegalArgumentException() {
+        // Arrange
+        Flux<MarketData> ticks = Flux.empty();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> ChartDownsampling.downsample(
+                ticks, TEN, TEN.plusMinutes(1), ChartDownsampling.MIN_POINTS - 1, Mode.LTTB));
+        assertThrows(IllegalArgumentException.class, () -> ChartDownsampling.downsample(
+                ticks, TEN, TEN.plusMinutes(1), ChartDownsampling.MAX_POINTS + 1, Mode.MIN_MAX));
+        assertThrows(IllegalArgumentException.class, () -> ChartDownsampling.downsample(
+                ticks, TEN, TEN, ChartDownsampling.MIN_POINTS, Mode.LTTB));
+    }
+
+    private static List<ChartPoint> downsample(List<MarketData> ticks, int rangeSeconds, int points, Mode mode) {
+        return ChartDownsampling.downsample(Flux.fromIterable(ticks), TEN, TEN.plusSeconds(rangeSeconds),
+                points, mode).collectList().block();
+    }
+
+    private static void assertInTimeOrder(List<ChartPoint> points) {
+        for (int i = 1; i < points.size(); i++) {
+            assertTrue(points.get(i - 1).getTimestamp().isBefore(points.get(i).getTimestamp()));
+        }
+    }
+
+    private static MarketData tick(int second, String price) {
+        return new MarketData(null, 1L, new BigDecimal(price), 1L, TEN.plusSeconds(second));
+    }
+
+    private static ChartPoint point(MarketData tick) {
+        return new ChartPoint(tick.getTimestamp(), tick.getPrice());
+    }
+}
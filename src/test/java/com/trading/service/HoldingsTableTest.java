@@ -0,0 +1,80 @@
+package com.trading.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HoldingsTableTest {
+
+    private final HoldingsTable table = new HoldingsTable(4);
+
+    @Test
+    void update_samePositionManyTimes_drainsOnce() {
+        // Arrange
+        int slot = table.putIfAbsent(1L, 10L, 100, 17750, 5L);
+
+        // Act
+        for (int i = 1; i <= 1000; i++) {
+            table.update(slot, 100 + i, 17750);
+        }
+        List<HoldingsTable.Position> drained = table.drainDirty(null);
+
+        // Assert
+        assertEquals(List.of(new HoldingsTable.Position(1L, 10L, 1100, 17750)), drained);
+        assertEquals(0, table.dirtyCount());
+        assertTrue(table.drainDirty(null).isEmpty());
+    }
+
+    @Test
+    void putIfAbsent_manyPositions_keepsEntriesAndDirtyFlagsAcrossGrowth() {
+        // Arrange
+        for (long account = 1; account <= 50; account++) {
+            for (long stock = 1; stock <= 20; stock++) {
+                int slot = table.putIfAbsent(account, stock, 0, 0, 0);
+                if (stock == 7) {
+                    table.update(slot, (int) account, 100);
+                }
+            }
+        }
+
+        // Act
+        int slot = table.find(33L, 7L);
+        List<HoldingsTable.Position> drained = table.drainDirty(null);
+
+        // Assert
+        assertEquals(1000, table.size());
+        assertEquals(33, table.quantity(slot));
+        assertEquals(-1, table.find(51L, 7L));
+        assertEquals(50, drained.size());
+    }
+
+    @Test
+    void drainDirty_forAccount_leavesOtherAccountsDirty() {
+        // Arrange
+        table.update(table.putIfAbsent(1L, 10L, 0, 0, 0), 5, 1000);
+        table.update(table.putIfAbsent(2L, 10L, 0, 0, 0), 7, 1000);
+
+        // Act
+        List<HoldingsTable.Position> drained = table.drainDirty(1L);
+
+        // Assert
+        assertEquals(List.of(new HoldingsTable.Position(1L, 10L, 5, 1000)), drained);
+        assertEquals(1, table.dirtyCount());
+        assertEquals(List.of(new HoldingsTable.Position(2L, 10L, 7, 1000)), table.drainDirty(null));
+    }
+
+    @Test
+    void update_toZero_clearsRowId() {
+        // Arrange
+        int slot = table.putIfAbsent(1L, 10L, 5, 1000, 42L);
+
+        // Act
+        table.update(slot, 0, 1000);
+
+        // Assert
+        assertEquals(0L, table.rowId(slot));
+        assertEquals(0, table.quantity(slot));
+    }
+}
@@ -0,0 +1,52 @@
+package com.trading.service;
+
+import com.trading.dto.IndicatorSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndicatorStateTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 2, 9, 30);
+
+    @Test
+    void snapshot_beforePeriodFills_returnsNullValues() {
+        // Arrange
+        IndicatorState state = new IndicatorState(1L, new int[] {3}, new int[] {3}, 3, 3, 2.0);
+        state.update(new BigDecimal("1"), NOW);
+        state.update(new BigDecimal("2"), NOW);
+
+        // Act
+        IndicatorSnapshot snapshot = state.snapshot();
+
+        // Assert
+        assertNull(snapshot.getSma().get(3));
+        assertNull(snapshot.getEma().get(3));
+        assertNull(snapshot.getRsi());
+        assertNull(snapshot.getBollingerMiddle());
+        assertEquals(2L, snapshot.getTicks());
+    }
+
+    @Test
+    void snapshot_afterRisingPrices_matchesReferenceValues() {
+        // Arrange
+        IndicatorState state = new IndicatorState(1L, new int[] {3}, new int[] {3}, 3, 3, 2.0);
+        for (int price = 1; price <= 5; price++) {
+            state.update(BigDecimal.valueOf(price), NOW);
+        }
+
+        // Act
+        IndicatorSnapshot snapshot = state.snapshot();
+
+        // Assert
+        assertEquals(new BigDecimal("4.0000"), snapshot.getSma().get(3));
+        assertEquals(new BigDecimal("4.0000"), snapshot.getEma().get(3));
+        assertEquals(new BigDecimal("100.0000"), snapshot.getRsi());
+        assertEquals(new BigDecimal("4.0000"), snapshot.getBollingerMiddle());
+        assertEquals(new BigDecimal("5.6330"), snapshot.getBollingerUpper());
+        assertEquals(new BigDecimal("2.3670"), snapshot.getBollingerLower());
+    }
+}
@@ -0,0 +1,66 @@
+package com.trading.service;
+
+import com.trading.model.MarketData;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketDataCsvParserTest {
+
+    private static final Map<String, Long> SYMBOLS = Map.of("AAPL", 1L, "MSFT", 2L);
+
+    @Test
+    void feed_lineSplitAcrossChunks_parsesOnce() {
+        // Arrange
+        MarketDataCsvParser parser = new MarketDataCsvParser(SYMBOLS, ZoneOffset.UTC);
+        String csv = "symbol,timestamp,price,volume\nAAPL,2025-01-02T09:30:00,178.5,100\nMSFT,2025-01-02 09:31:00.25,384.125,7\n";
+
+        // Act
+        List<MarketData> rows = new ArrayList<>();
+        for (int i = 0; i < csv.length(); i += 5) {
+            rows.addAll(parser.feed(chunk(csv.substring(i, Math.min(csv.length(), i + 5)))));
+        }
+        rows.addAll(parser.finish());
+
+        // Assert
+        assertEquals(2, rows.size());
+        assertEquals(1L, rows.get(0).getStockId());
+        assertEquals(new BigDecimal("178.5"), rows.get(0).getPrice());
+        assertEquals(LocalDateTime.of(2025, 1, 2, 9, 30), rows.get(0).getTimestamp());
+        assertEquals(100L, rows.get(0).getVolume());
+        assertEquals(new BigDecimal("384.13"), rows.get(1).getPrice());
+        assertEquals(LocalDateTime.of(2025, 1, 2, 9, 31, 0, 250_000_000), rows.get(1).getTimestamp());
+        assertEquals(1, parser.getRejected());
+    }
+
+    @Test
+    void feed_invalidLines_areRejected() {
+        // Arrange
+        MarketDataCsvParser parser = new MarketDataCsvParser(SYMBOLS, ZoneOffset.UTC);
+
+        // Act
+        List<MarketData> rows = new ArrayList<>(parser.feed(chunk(
+                "IBM,2025-01-02T09:30:00,1.00,1\nAAPL,yesterday,1.00,1\nAAPL,2025-01-02T09:30:00,-1,1\n2,1735810200000,10,3")));
+        rows.addAll(parser.finish());
+
+        // Assert
+        assertEquals(1, rows.size());
+        assertEquals(2L, rows.get(0).getStockId());
+        assertEquals(LocalDateTime.of(2025, 1, 2, 9, 30), rows.get(0).getTimestamp());
+        assertEquals(3, parser.getRejected());
+        assertEquals(4, parser.getLines());
+    }
+
+    private static ByteBuffer chunk(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,81 @@
+package com.trading.service;
+
+import com.trading.model.MarketData;
+import com.trading.model.PriceBar;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OhlcvRollupTest {
+
+    private static final LocalDateTime TEN = LocalDateTime.of(2026, 1, 1, 10, 0);
+
+    private final OhlcvRollup rollup = new OhlcvRollup(60);
+
+    @Test
+    void add_rowsOutOfOrderWithinBucket_keepEarliestOpenAndLatestClose() {
+        // Act
+        List<PriceBar> closed = rollup.add(List.of(
+                row(30, "100.00", 10),
+                row(10, "98.00", 3),
+                row(50, "105.00", 5),
+                row(40, "101.00", 1)));
+        List<PriceBar> remaining = rollup.finish();
+
+        // Assert
+        assertTrue(closed.isEmpty());
+        PriceBar bar = remaining.get(0);
+        assertEquals(new BigDecimal("98.00"), bar.getOpenPrice());
+        assertEquals(new BigDecimal("105.00"), bar.getHighPrice());
+        assertEquals(new BigDecimal("98.00"), bar.getLowPrice());
+        assertEquals(new BigDecimal("105.00"), bar.getClosePrice());
+        assertEquals(19L, bar.getVolume());
+        assertEquals(TEN.plusSeconds(10), bar.getOpenedAt());
+        assertEquals(TEN.plusSeconds(50), bar.getClosedAt());
+    }
+
+    @Test
+    void add_lateRowOfClosedBucket_mergesIntoBarClosedInSameCall() {
+        // Act
+        List<PriceBar> closed = rollup.add(List.of(
+                row(30, "100.00", 10),
+                row(65, "99.00", 2),
+                row(20, "120.00", 4)));
+
+        // Assert
+        assertEquals(1, closed.size(), "One bar per stock and bucket");
+        PriceBar bar = closed.get(0);
+        assertEquals(TEN, bar.getBucketStart());
+        assertEquals(new BigDecimal("120.00"), bar.getOpenPrice());
+        assertEquals(new BigDecimal("100.00"), bar.getClosePrice());
+        assertEquals(14L, bar.getVolume());
+        assertEquals(TEN.plusMinutes(1), rollup.finish().get(0).getBucketStart());
+    }
+
+    @Test
+    void add_lateRowOfEarlierCall_returnsPartialBar() {
+        // Arrange
+        rollup.add(List.of(row(30, "100.00", 10), row(65, "99.00", 2)));
+
+        // Act
+        List<PriceBar> closed = rollup.add(List.of(row(20, "120.00", 4)));
+
+        // Assert
+        assertEquals(1, closed.size());
+        PriceBar partial = closed.get(0);
+        assertEquals(TEN, partial.getBucketStart());
+        assertEquals(new BigDecimal("120.00"), partial.getOpenPrice());
+        assertEquals(4L, partial.getVolume());
+        assertEquals(1, rollup.finish().size(), "The open bar is not closed by a late row");
+    }
+
+    private static MarketData row(int secondsAfterTen, String price, long volume) {
+        MarketData row = new MarketData(1L, new BigDecimal(price), volume);
+        row.setTimestamp(TEN.plusSeconds(secondsAfterTen));
+        return row;
+    }
+}
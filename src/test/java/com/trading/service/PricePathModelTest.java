@@ -0,0 +1,68 @@
+package com.trading.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PricePathModelTest {
+
+    // One hour of trading time per tick, with frequent jumps
+    private final PricePathModel model = new PricePathModel(true, 0.05, 0.3, 3600 / (252 * 6.5 * 3600),
+            25, -0.01, 0.04, 500);
+
+    @Test
+    void step_sameSeedAndStock_producesIdenticalSequences() {
+        // Arrange
+        PricePathModel.Path first = model.newPath(42, 7, 150.0);
+        PricePathModel.Path second = model.newPath(42, 7, 150.0);
+
+        // Act
+        List<String> firstTicks = ticks(first, 1000);
+        List<String> secondTicks = ticks(second, 1000);
+
+        // Assert
+        assertEquals(firstTicks, secondTicks);
+    }
+
+    @Test
+    void step_otherSeedOrStock_producesOtherSequences() {
+        // Arrange
+        PricePathModel.Path reference = model.newPath(42, 7, 150.0);
+        PricePathModel.Path otherSeed = model.newPath(43, 7, 150.0);
+        PricePathModel.Path otherStock = model.newPath(42, 8, 150.0);
+
+        // Act
+        List<String> referenceTicks = ticks(reference, 100);
+
+        // Assert
+        assertNotEquals(referenceTicks, ticks(otherSeed, 100));
+        assertNotEquals(referenceTicks, ticks(otherStock, 100));
+    }
+
+    @Test
+    void step_priceNeverDropsBelowOneCent() {
+        // Arrange
+        PricePathModel crash = new PricePathModel(false, -500, 0.1, 1, 0, 0, 0, 10);
+        PricePathModel.Path path = crash.newPath(1, 1, 1.0);
+
+        // Act
+        path.step();
+
+        // Assert
+        assertEquals(new BigDecimal("0.01"), path.price());
+        assertTrue(path.lastVolume() >= 1 && path.lastVolume() <= 10);
+    }
+
+    private static List<String> ticks(PricePathModel.Path path, int count) {
+        List<String> ticks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            path.step();
+            ticks.add(path.price() + "x" + path.lastVolume());
+        }
+        return ticks;
+    }
+}
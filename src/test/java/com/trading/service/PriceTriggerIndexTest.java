@@ -0,0 +1,87 @@
+package com.trading.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceTriggerIndexTest {
+
+    private final PriceTriggerIndex index = new PriceTriggerIndex();
+
+    @Test
+    void trigger_risingEntries_fireAtOrAboveThreshold() {
+        // Arrange
+        index.add(1L, 10L, PriceTriggerIndex.Direction.RISING, new BigDecimal("101.00"));
+        index.add(2L, 10L, PriceTriggerIndex.Direction.RISING, new BigDecimal("100.00"));
+        index.add(3L, 10L, PriceTriggerIndex.Direction.RISING, new BigDecimal("105.00"));
+
+        // Act
+        List<Long> belowAll = index.trigger(10L, new BigDecimal("99.99"));
+        List<Long> fired = index.trigger(10L, new BigDecimal("101"));
+
+        // Assert
+        assertTrue(belowAll.isEmpty());
+        assertEquals(List.of(2L, 1L), fired, "Lowest thresholds fire first");
+        assertEquals(1, index.size());
+        assertTrue(index.contains(3L));
+    }
+
+    @Test
+    void trigger_fallingEntries_fireAtOrBelowThreshold() {
+        // Arrange
+        index.add(1L, 10L, PriceTriggerIndex.Direction.FALLING, new BigDecimal("90.00"));
+        index.add(2L, 10L, PriceTriggerIndex.Direction.FALLING, new BigDecimal("95.00"));
+        index.add(3L, 10L, PriceTriggerIndex.Direction.RISING, new BigDecimal("95.00"));
+
+        // Act
+        List<Long> fired = index.trigger(10L, new BigDecimal("95.00"));
+
+        // Assert
+        assertEquals(List.of(3L, 2L), fired);
+        assertTrue(index.contains(1L));
+    }
+
+    @Test
+    void trigger_otherStock_isNotAffected() {
+        // Arrange
+        index.add(1L, 10L, PriceTriggerIndex.Direction.RISING, new BigDecimal("50.00"));
+
+        // Act
+        List<Long> fired = index.trigger(20L, new BigDecimal("500.00"));
+
+        // Assert
+        assertTrue(fired.isEmpty());
+        assertTrue(index.contains(1L));
+    }
+
+    @Test
+    void add_existingId_movesEntryToNewThreshold() {
+        // Arrange
+        index.add(1L, 10L, PriceTriggerIndex.Direction.RISING, new BigDecimal("50.00"));
+
+        // Act
+        index.add(1L, 10L, PriceTriggerIndex.Direction.RISING, new BigDecimal("60.00"));
+
+        // Assert
+        assertTrue(index.trigger(10L, new BigDecimal("55.00")).isEmpty());
+        assertEquals(List.of(1L), index.trigger(10L, new BigDecimal("60.00")));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void remove_registeredEntry_neverFires() {
+        // Arrange
+        index.add(1L, 10L, PriceTriggerIndex.Direction.FALLING, new BigDecimal("50.00"));
+
+        // Act
+        boolean removed = index.remove(1L);
+
+        // Assert
+        assertTrue(removed);
+        assertFalse(index.remove(1L));
+        assertTrue(index.trigger(10L, new BigDecimal("10.00")).isEmpty());
+    }
+}
@@ -0,0 +1,87 @@
+package com.trading.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private static final long TICK = 1_000L;
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void advance_beforeDeadline_expiresNothing() {
+        // Arrange
+        TimingWheel wheel = new TimingWheel(TICK, START);
+        wheel.schedule(1L, START + 5_000L);
+
+        // Act
+        List<Long> expired = wheel.advance(START + 4_999L);
+
+        // Assert
+        assertTrue(expired.isEmpty());
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void advance_pastDeadline_expiresOnlyDueEntries() {
+        // Arrange
+        TimingWheel wheel = new TimingWheel(TICK, START);
+        wheel.schedule(1L, START + 3_000L);
+        wheel.schedule(2L, START + 70_000L);
+        wheel.schedule(3L, START + 3_000L);
+
+        // Act
+        List<Long> first = wheel.advance(START + 3_000L);
+        List<Long> second = wheel.advance(START + 69_999L);
+        List<Long> third = wheel.advance(START + 70_000L);
+
+        // Assert
+        assertEquals(List.of(1L, 3L), first);
+        assertTrue(second.isEmpty());
+        assertEquals(List.of(2L), third);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void schedule_deadlineAlreadyPassed_expiresOnNextAdvance() {
+        // Arrange
+        TimingWheel wheel = new TimingWheel(TICK, START);
+
+        // Act
+        wheel.schedule(7L, START - 60_000L);
+
+        // Assert
+        assertEquals(List.of(7L), wheel.advance(START));
+    }
+
+    @Test
+    void advance_deadlinesAcrossLevels_neverExpireEarlyOrLate() {
+        // Arrange - deadlines from seconds to weeks ahead, spread over every level
+        TimingWheel wheel = new TimingWheel(TICK, START);
+        long[] offsets = {1_000L, 63_000L, 64_000L, 65_000L, 4_095_000L, 4_096_000L, 86_400_000L,
+                604_800_000L, 262_144_000L + 1_000L};
+        for (int i = 0; i < offsets.length; i++) {
+            wheel.schedule(i, START + offsets[i]);
+        }
+
+        // Act - step one tick at a time and record when each id comes out
+        long[] expiredAt = new long[offsets.length];
+        List<Long> all = new ArrayList<>();
+        for (long now = START; now <= START + 604_800_000L; now += TICK) {
+            for (Long id : wheel.advance(now)) {
+                expiredAt[id.intValue()] = now - START;
+                all.add(id);
+            }
+        }
+
+        // Assert
+        assertEquals(offsets.length, all.size());
+        for (int i = 0; i < offsets.length; i++) {
+            assertEquals(offsets[i], expiredAt[i], "Entry " + i + " expired at the wrong tick");
+        }
+    }
+}